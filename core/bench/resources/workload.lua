@@ -0,0 +1,45 @@
+-- Workload for LuaJCBenchmark: a mix of the arithmetic,
+-- table, call and string work done by typical scripts.
+-- Returns a checksum so both runners can be compared.
+
+local function fib(n)
+    if n < 2 then
+        return n
+    end
+
+    return fib(n - 1) + fib(n - 2)
+end
+
+local function newVector(x, y)
+    return { x = x, y = y }
+end
+
+local function add(a, b)
+    return newVector(a.x + b.x, a.y + b.y)
+end
+
+local sum = 0
+for i = 1, 2000 do
+    sum = sum + (i * 3) % 7
+end
+
+local position = newVector(0, 0)
+local velocity = newVector(1.5, -0.5)
+for i = 1, 500 do
+    position = add(position, velocity)
+end
+
+local list = {}
+for i = 1, 500 do
+    list[#list + 1] = i * 2
+end
+
+table.sort(list, function(a, b) return a > b end)
+
+local text = {}
+for i = 1, 100 do
+    text[#text + 1] = string.format("%d:%s", i, tostring(list[i]))
+end
+
+local joined = table.concat(text, ",")
+return sum + fib(15) + math.floor(position.x + position.y) + list[1] + #joined
@@ -0,0 +1,258 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Tellerva, Marc Lawrence
+ *
+ * Permission is hereby granted, free of charge, to any
+ * person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the
+ * Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge,
+ * publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice
+ * shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package me.scarlet.undertailor.gfx.text.parse;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmark comparing the single-pass {@link TextParser}
+ * against the regular expression parser it replaced, over
+ * a corpus of dialogue strings.
+ * 
+ * <p>Before timing anything, the output of both parsers is
+ * compared for every string of the corpus. Timings are
+ * then reported for the regex parser, the scanner, and
+ * {@link ParsedText#of(String)} answering from its
+ * cache.</p>
+ * 
+ * <p>Run with <code>gradlew :core:bench
+ * -Pbenchmark=me.scarlet.undertailor.gfx.text.parse.TextParserBenchmark</code>,
+ * optionally passing the count of measured rounds as the
+ * first argument.</p>
+ */
+public class TextParserBenchmark {
+
+    static final String CORPUS = "/dialogue.txt";
+    static final int WARMUP_ROUNDS = 2000;
+    static final int DEFAULT_ROUNDS = 10000;
+
+    // keeps the parsed results reachable so the work is not optimized out
+    static int sink;
+
+    public static void main(String[] args) throws IOException {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROUNDS;
+        String[] corpus = loadCorpus();
+        System.out.printf("corpus: %d strings, %d characters%n", corpus.length,
+            countCharacters(corpus));
+
+        int mismatches = 0;
+        for (String line : corpus) {
+            if (!samePieces(RegexTextParser.parse(line), TextParser.parse(line))) {
+                System.out.println("output differs: " + line);
+                mismatches++;
+            }
+        }
+
+        System.out.printf("outputs compared: %d mismatches%n", mismatches);
+
+        run("regex parser", corpus, rounds, RegexTextParser::parse);
+        run("single-pass parser", corpus, rounds, TextParser::parse);
+        ParsedText.clearCache();
+        run("cached ParsedText", corpus, rounds, line -> ParsedText.of(line).getPieces());
+        System.out.printf("cache: %d hits, %d misses%n", ParsedText.getCacheHits(),
+            ParsedText.getCacheMisses());
+    }
+
+    /**
+     * Times the given parser over the corpus, printing the
+     * average time taken per string.
+     */
+    static void run(String name, String[] corpus, int rounds,
+        Function<String, Array<TextPiece>> parser) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            parseAll(corpus, parser);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            parseAll(corpus, parser);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        double perString = elapsed / (double) (rounds * (long) corpus.length);
+        System.out.printf("%-20s %10.1f ns/string %12.0f strings/s%n", name, perString,
+            1_000_000_000D / perString);
+    }
+
+    static void parseAll(String[] corpus, Function<String, Array<TextPiece>> parser) {
+        for (String line : corpus) {
+            sink += parser.apply(line).size;
+        }
+    }
+
+    // ---------------- corpus ----------------
+
+    /**
+     * Reads the corpus, one string per line, translating
+     * <code>\n</code> sequences into line breaks and
+     * skipping comment lines.
+     */
+    static String[] loadCorpus() throws IOException {
+        Array<String> lines = new Array<>(true, 64, String.class);
+        try (InputStream stream = TextParserBenchmark.class.getResourceAsStream(CORPUS)) {
+            if (stream == null) {
+                throw new IOException("Missing benchmark corpus " + CORPUS);
+            }
+
+            BufferedReader reader =
+                new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    lines.add(line.replace("\\n", "\n"));
+                }
+            }
+        }
+
+        return lines.toArray();
+    }
+
+    static int countCharacters(String[] corpus) {
+        int count = 0;
+        for (String line : corpus) {
+            count += line.length();
+        }
+
+        return count;
+    }
+
+    static boolean samePieces(Array<TextPiece> a, Array<TextPiece> b) {
+        if (a.size != b.size) {
+            return false;
+        }
+
+        for (int i = 0; i < a.size; i++) {
+            TextPiece pieceA = a.get(i);
+            TextPiece pieceB = b.get(i);
+            if (!pieceA.getMessage().equals(pieceB.getMessage())
+                || pieceA.getParams().size != pieceB.getParams().size) {
+                return false;
+            }
+
+            for (TextParam param : TextParam.values()) {
+                String valueA = pieceA.getParams().get(param);
+                String valueB = pieceB.getParams().get(param);
+                if (valueA == null ? valueB != null : !valueA.equals(valueB)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    // ---------------- regex parser ----------------
+
+    /**
+     * The regular expression based parser replaced by
+     * {@link TextParser}, kept as the benchmark baseline.
+     * 
+     * <p>Throws an ArrayIndexOutOfBoundsException for
+     * blocks with an empty key, such as <code>[=]</code>,
+     * which TextParser ignores.</p>
+     */
+    static final class RegexTextParser {
+
+        private static final Pattern CATCH_PATTERN =
+            Pattern.compile("((?<!\\\\)\\[([^\\n\\[\\]]+?)(?<!\\\\)\\])+");
+
+        static Array<TextPiece> parse(String input) {
+            Array<TextPiece> pieces = new Array<>(true, 16);
+
+            ObjectMap<TextParam, String> current = new ObjectMap<>();
+            for (String piece : separate(input)) {
+                if (CATCH_PATTERN.matcher(piece).matches()) {
+                    current.putAll(parseMatches(piece));
+                } else {
+                    pieces.add(TextPiece.of(new ObjectMap<>(current), piece));
+                }
+            }
+
+            return pieces;
+        }
+
+        static Array<String> separate(String input) {
+            Array<String> results = new Array<>(true, 16);
+            Matcher regex = CATCH_PATTERN.matcher(input);
+            int lastIndex = 0;
+
+            while (regex.find()) {
+                if (!input.substring(lastIndex, regex.start()).isEmpty()) {
+                    results.add(input.substring(lastIndex, regex.start()));
+                }
+
+                results.add(regex.group());
+                lastIndex = regex.end();
+            }
+
+            results.add(input.substring(lastIndex));
+            return results;
+        }
+
+        static ObjectMap<TextParam, String> parseMatches(String input) {
+            ObjectMap<TextParam, String> params = new ObjectMap<>();
+            Matcher regex = CATCH_PATTERN.matcher(input);
+
+            while (regex.find()) {
+                String[] splits = regex.group().split("(\\]\\[)");
+                for (String param : splits) {
+                    String[] array = param.replaceAll("[\\[\\]]", "").split("=");
+
+                    TextParam textParam = TextParam.of(array[0]);
+                    if (textParam == TextParam.UNDEFINED) {
+                        continue;
+                    }
+
+                    String value;
+                    if (array.length < 2 || array[1].isEmpty()) {
+                        value = "";
+                    } else {
+                        value = array[1];
+                    }
+
+                    params.put(textParam, value);
+                }
+            }
+
+            return params;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Tellerva, Marc Lawrence
+ *
+ * Permission is hereby granted, free of charge, to any
+ * person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the
+ * Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge,
+ * publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice
+ * shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+
+package me.scarlet.undertailor.lua;
+
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaFunction;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Prototype;
+import org.luaj.vm2.lib.jse.JsePlatform;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+/**
+ * Benchmark comparing scripts run by the LuaJ interpreter
+ * against the same scripts run as classes generated by
+ * {@link LuaJCLoader}.
+ * 
+ * <p>The workload script is first run by both, checking
+ * that they return the same result. Timings are then
+ * reported for running it interpreted and as generated
+ * classes, and for loading it as a class on a fresh launch,
+ * both by generating the class and by defining it from a
+ * {@link BytecodeCache}.</p>
+ * 
+ * <p>Requires BCEL on the classpath. Run with
+ * <code>gradlew :core:bench
+ * -Pbenchmark=me.scarlet.undertailor.lua.LuaJCBenchmark</code>,
+ * optionally passing the count of measured runs as the
+ * first argument.</p>
+ */
+public class LuaJCBenchmark {
+
+    static final String WORKLOAD = "/workload.lua";
+    static final String CHUNKNAME = "@workload.lua";
+    static final int WARMUP_RUNS = 300;
+    static final int DEFAULT_RUNS = 2000;
+    static final int LOAD_RUNS = 200;
+
+    // keeps the results reachable so the work is not optimized out
+    static long sink;
+
+    public static void main(String[] args) throws IOException {
+        if (!LuaJCLoader.isAvailable()) {
+            System.out.println("BCEL was not found; LuaJC cannot be benchmarked");
+            return;
+        }
+
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RUNS;
+        byte[] source = loadWorkload();
+        Globals globals = JsePlatform.standardGlobals();
+        Prototype prototype = compile(globals, source);
+
+        LuaFunction interpreted = globals.loader.load(prototype, CHUNKNAME, globals);
+        LuaFunction generated = new LuaJCLoader(null).load(prototype, CHUNKNAME, null, globals);
+        if (generated == null) {
+            System.out.println("LuaJC could not compile the workload");
+            return;
+        }
+
+        LuaValue expected = interpreted.call();
+        LuaValue actual = generated.call();
+        System.out.printf("results: interpreted %s, luajc %s%n", expected, actual);
+        if (!expected.raweq(actual)) {
+            System.out.println("results differ");
+            return;
+        }
+
+        run("interpreted", interpreted, runs);
+        run("luajc", generated, runs);
+
+        File directory = Files.createTempDirectory("luajc-bench").toFile();
+        try {
+            BytecodeCache cache = new BytecodeCache(directory);
+            String key = cache.getKey(WORKLOAD, source, CHUNKNAME);
+            new LuaJCLoader(cache).load(compile(globals, source), CHUNKNAME, key, globals);
+
+            timeLoad("class generated", globals, source, null, null);
+            LuaJCLoader cached = timeLoad("class from cache", globals, source, cache, key);
+            System.out.printf("cache: %d hits, %d misses%n", cached.getLoadedCount(),
+                cached.getCompiledCount());
+        } finally {
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+
+            directory.delete();
+        }
+    }
+
+    /**
+     * Times the given function, printing the average time
+     * taken per run.
+     */
+    static void run(String name, LuaFunction function, int runs) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            sink += function.call().tolong();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            sink += function.call().tolong();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        double perRun = elapsed / (double) runs;
+        System.out.printf("%-20s %10.1f us/run %10.0f runs/s%n", name, perRun / 1000D,
+            1_000_000_000D / perRun);
+    }
+
+    /**
+     * Times loading the workload as a class the way a fresh
+     * launch would, with a new Prototype and loader each
+     * time, returning the last loader used.
+     */
+    static LuaJCLoader timeLoad(String name, Globals globals, byte[] source,
+        BytecodeCache cache, String key) {
+        LuaJCLoader loader = null;
+        long elapsed = 0;
+        for (int i = 0; i < LOAD_RUNS; i++) {
+            Prototype prototype = compile(globals, source);
+            loader = new LuaJCLoader(cache);
+
+            long start = System.nanoTime();
+            sink += loader.load(prototype, CHUNKNAME, key, globals).hashCode();
+            elapsed += System.nanoTime() - start;
+        }
+
+        System.out.printf("%-20s %10.1f us/load%n", name, elapsed / (LOAD_RUNS * 1000D));
+        return loader;
+    }
+
+    // ---------------- workload ----------------
+
+    static byte[] loadWorkload() throws IOException {
+        try (InputStream stream = LuaJCBenchmark.class.getResourceAsStream(WORKLOAD)) {
+            if (stream == null) {
+                throw new IOException("Missing benchmark workload " + WORKLOAD);
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+
+            return bytes.toByteArray();
+        }
+    }
+
+    static Prototype compile(Globals globals, byte[] source) {
+        try {
+            return globals.compilePrototype(new ByteArrayInputStream(source), CHUNKNAME);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
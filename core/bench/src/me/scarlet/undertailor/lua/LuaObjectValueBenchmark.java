@@ -0,0 +1,161 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Tellerva, Marc Lawrence
+ *
+ * Permission is hereby granted, free of charge, to any
+ * person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the
+ * Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge,
+ * publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice
+ * shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+
+package me.scarlet.undertailor.lua;
+
+import com.badlogic.gdx.graphics.Color;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+
+import me.scarlet.undertailor.util.LuaUtil;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.Consumer;
+
+/**
+ * Benchmark measuring the allocations made when creating
+ * {@link LuaObjectValue}s and retrieving their metatables.
+ * 
+ * <p>Reports the time taken and bytes allocated per object
+ * for creating object values sharing their class
+ * metatable, for the deep copy every metatable retrieval
+ * used to make, for reading the metatable through
+ * {@link LuaObjectValue#getOwnMetatable()} once and
+ * repeatedly, and for the copy made on the first write to
+ * it.</p>
+ * 
+ * <p>Allocation counts require a JVM supporting
+ * per-thread allocation measurement, such as HotSpot. Run
+ * with <code>gradlew :core:bench
+ * -Pbenchmark=me.scarlet.undertailor.lua.LuaObjectValueBenchmark</code>,
+ * optionally passing the count of objects per round as the
+ * first argument.</p>
+ */
+public class LuaObjectValueBenchmark {
+
+    static final int WARMUP_ROUNDS = 20;
+    static final int ROUNDS = 20;
+    static final int DEFAULT_OBJECTS = 10000;
+    static final LuaValue INDEX = LuaValue.valueOf("__index");
+    static final LuaValue FUNCTION = LuaValue.valueOf("getRGB");
+    static final LuaValue KEY = LuaValue.valueOf("benchmark");
+
+    // keeps the results reachable so the work is not optimized out
+    static int sink;
+
+    public static void main(String[] args) {
+        int objects = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_OBJECTS;
+        LuaTable shared = Lua.generateMetatable(new Color());
+        System.out.printf("shared metatable: %d entries, %d in __index%n", shared.keyCount(),
+            shared.get(INDEX).checktable().keyCount());
+
+        run("create", objects, value -> {
+        });
+        run("copy on read", objects, value -> {
+            sink += LuaUtil.copyTable(value.getmetatable().checktable(), true).keyCount();
+        });
+        run("read own metatable", objects, value -> {
+            sink += value.getOwnMetatable().get(INDEX).get(FUNCTION).hashCode();
+        });
+        run("read it 10 times", objects, value -> {
+            for (int i = 0; i < 10; i++) {
+                sink += value.getOwnMetatable().get(INDEX).get(FUNCTION).hashCode();
+            }
+        });
+        run("write own metatable", objects, value -> {
+            value.getOwnMetatable().get(INDEX).set(KEY, LuaValue.TRUE);
+            sink += value.getmetatable().hashCode();
+        });
+    }
+
+    /**
+     * Creates object values for new objects and runs the
+     * given action over each of them, printing the average
+     * time taken and bytes allocated per object.
+     */
+    static void run(String name, int objects, Consumer<LuaObjectValue<Color>> action) {
+        Color[] colors = new Color[objects];
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runRound(colors, action);
+        }
+
+        long elapsed = 0;
+        long allocated = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long startBytes = allocatedBytes();
+            elapsed += runRound(colors, action);
+            allocated += allocatedBytes() - startBytes;
+        }
+
+        double count = ROUNDS * (double) objects;
+        if (allocated < 0) {
+            System.out.printf("%-20s %10.1f ns/object%n", name, elapsed / count);
+        } else {
+            System.out.printf("%-20s %10.1f ns/object %10.1f bytes/object%n", name,
+                elapsed / count, allocated / count);
+        }
+    }
+
+    /**
+     * Runs a single round over fresh objects, returning the
+     * time it took. The objects are created beforehand so
+     * only the object values are counted.
+     */
+    static long runRound(Color[] colors, Consumer<LuaObjectValue<Color>> action) {
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = new Color();
+        }
+
+        long start = System.nanoTime();
+        for (Color color : colors) {
+            action.accept(LuaObjectValue.of(color));
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Returns the count of bytes allocated by the current
+     * thread so far, or -1 if it cannot be measured.
+     */
+    static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+            if (hotspot.isThreadAllocatedMemorySupported()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+
+        return -1;
+    }
+}
@@ -35,6 +35,7 @@ import com.badlogic.gdx.utils.Array;
 import me.scarlet.undertailor.audio.AudioManager;
 import me.scarlet.undertailor.engine.overworld.map.TilemapManager;
 import me.scarlet.undertailor.engine.overworld.map.TilesetManager;
+import me.scarlet.undertailor.gfx.AtlasPacker;
 import me.scarlet.undertailor.gfx.spritesheet.SpriteSheetManager;
 import me.scarlet.undertailor.gfx.text.FontManager;
 import me.scarlet.undertailor.gfx.text.TextStyleManager;
@@ -79,6 +80,7 @@ public class AssetManager {
     public static final String DIR_TILESETS = "maps/tilesets";
     public static final String DIR_TILEMAPS = "maps";
 
+    private AtlasPacker packer;
     private FontManager font;
     private AudioManager audio;
     private ScriptManager scripts;
@@ -88,13 +90,19 @@ public class AssetManager {
     private TilemapManager tilemaps;
 
     public AssetManager(Undertailor undertailor) {
-        this.font = new FontManager(undertailor.getRenderer());
+        this.packer = undertailor.getLaunchOptions().packTextures ? new AtlasPacker() : null;
+        this.font = new FontManager(undertailor.getRenderer(), this.packer);
         this.audio = new AudioManager(undertailor);
         this.scripts = new ScriptManager(undertailor);
         this.styles = new TextStyleManager(this.scripts);
-        this.sprites = new SpriteSheetManager(undertailor.getRenderer());
-        this.tilesets = new TilesetManager(undertailor.getRenderer());
+        this.sprites = new SpriteSheetManager(undertailor.getRenderer(), this.packer);
+        this.tilesets = new TilesetManager(undertailor.getRenderer(), this.packer);
         this.tilemaps = new TilemapManager(undertailor.getRenderer(), this.tilesets);
+
+        if (this.packer != null) {
+            // let shapes drawn as sprites share the atlas
+            undertailor.getRenderer().setPrimitiveRegion(this.packer.getWhiteRegion());
+        }
     }
 
     // ---------------- functional methods ----------------
@@ -142,6 +150,17 @@ public class AssetManager {
 
     // ---------------- g/s managers ----------------
 
+    /**
+     * Returns the {@link AtlasPacker} used to pack textures
+     * together when loading assets.
+     * 
+     * @return the AtlasPacker, or null if texture packing
+     *         is disabled
+     */
+    public AtlasPacker getAtlasPacker() {
+        return this.packer;
+    }
+
     /**
      * Returns the underlying {@link AudioManager}.
      * 
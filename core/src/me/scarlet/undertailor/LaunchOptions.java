@@ -77,6 +77,17 @@ public class LaunchOptions {
     public static final String KEY_SYSTEM_BINDS = "systemBinds";
     public static final String KEY_USE_CUSTOM_DIR = "useCustomDir";
     public static final String KEY_SKIP_LAUNCHER = "skipLauncher";
+    public static final String KEY_PACK_TEXTURES = "packTextures";
+    public static final String KEY_BYTECODE_CACHE = "bytecodeCache";
+    public static final String KEY_BYTECODE_CACHE_DIR = "bytecodeCacheDir";
+    public static final String KEY_LUAJC = "luajc";
+
+    /**
+     * The directory compiled scripts are cached in, when
+     * not set otherwise.
+     */
+    public static final File DEFAULT_BYTECODE_CACHE_DIR =
+        new File(System.getProperty("user.home"), ".undertailor" + File.separator + "bytecode");
 
     static File ASSETS_DIRECTORY;
     static Logger log;
@@ -132,6 +143,24 @@ public class LaunchOptions {
      * initially launched.
      */
     public int windowWidth, windowHeight;
+    /**
+     * Whether or not to pack the images of spritesheets,
+     * tilesets and fonts into shared texture atlases when
+     * loading them.
+     */
+    public boolean packTextures;
+    /**
+     * Whether or not to keep compiled Lua scripts on disk,
+     * to skip compiling them again on later launches.
+     */
+    public boolean bytecodeCache;
+    /** The directory compiled Lua scripts are kept in. */
+    public File bytecodeCacheDir;
+    /**
+     * Whether or not to run Lua scripts as JVM classes
+     * generated by LuaJC, rather than interpreting them.
+     */
+    public boolean luajc;
 
     public LaunchOptions(boolean dev) {
         this.save = false;
@@ -142,6 +171,10 @@ public class LaunchOptions {
         this.windowWidth = 640;
         this.windowHeight = 480;
         this.useCustomDir = true;
+        this.packTextures = false;
+        this.bytecodeCache = true;
+        this.bytecodeCacheDir = DEFAULT_BYTECODE_CACHE_DIR;
+        this.luajc = false;
         this.assetDir = new File(System.getProperty("user.dir"));
 
         if (!dev) {
@@ -159,6 +192,12 @@ public class LaunchOptions {
             this.windowWidth = Integer.parseInt(windowBounds[0]);
             this.windowHeight = Integer.parseInt(windowBounds[1]);
 
+            this.packTextures = prefs.getBoolean(KEY_PACK_TEXTURES, this.packTextures);
+            this.bytecodeCache = prefs.getBoolean(KEY_BYTECODE_CACHE, this.bytecodeCache);
+            String cacheDirPath = prefs.get(KEY_BYTECODE_CACHE_DIR, "");
+            this.bytecodeCacheDir =
+                cacheDirPath.isEmpty() ? DEFAULT_BYTECODE_CACHE_DIR : new File(cacheDirPath);
+            this.luajc = prefs.getBoolean(KEY_LUAJC, this.luajc);
             this.useCustomDir = prefs.getBoolean(KEY_USE_CUSTOM_DIR, false); // #
             String assetDirPath =
                 prefs.get(KEY_ASSET_DIRECTORY, ASSETS_DIRECTORY.getAbsolutePath());
@@ -184,6 +223,11 @@ public class LaunchOptions {
             prefs.put(KEY_USE_CUSTOM_DIR, useCustomDir + "");
             prefs.put(KEY_WINDOW_SIZE, windowWidth + "x" + windowHeight);
             prefs.put(KEY_SKIP_LAUNCHER, skipLauncher + "");
+            prefs.put(KEY_PACK_TEXTURES, packTextures + "");
+            prefs.put(KEY_BYTECODE_CACHE, bytecodeCache + "");
+            prefs.put(KEY_BYTECODE_CACHE_DIR,
+                bytecodeCacheDir == null ? "" : bytecodeCacheDir.getAbsolutePath());
+            prefs.put(KEY_LUAJC, luajc + "");
             prefs.put(KEY_ASSET_DIRECTORY, assetDir == null ? "" : assetDir.getAbsolutePath());
 
             prefs.flush();
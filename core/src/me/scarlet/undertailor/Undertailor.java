@@ -33,6 +33,7 @@ import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
 import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.utils.TimeUtils;
 import javafx.application.Platform;
 import org.lwjgl.opengl.Display;
 import org.slf4j.Logger;
@@ -41,8 +42,10 @@ import org.slf4j.LoggerFactory;
 import me.scarlet.undertailor.engine.Environment;
 import me.scarlet.undertailor.engine.EnvironmentManager;
 import me.scarlet.undertailor.engine.events.Event;
+import me.scarlet.undertailor.gfx.AnimationClock;
 import me.scarlet.undertailor.gfx.MultiRenderer;
 import me.scarlet.undertailor.input.InputRetriever;
+import me.scarlet.undertailor.lua.ScriptManager;
 import me.scarlet.undertailor.resource.ResourceHandler;
 
 import java.io.File;
@@ -180,6 +183,7 @@ public class Undertailor extends ApplicationAdapter {
 
     @Override
     public void create() {
+        long startTime = TimeUtils.millis();
         this.input = new InputRetriever(this);
         this.renderer = new MultiRenderer();
         Gdx.input.setInputProcessor(this.input);
@@ -207,6 +211,11 @@ public class Undertailor extends ApplicationAdapter {
         } else {
             log.warn("main.lua was not found in game directory; no start code was executed");
         }
+
+        ScriptManager scripts = this.assets.getScriptManager();
+        log.info("Startup took " + TimeUtils.timeSinceMillis(startTime) + "ms ("
+            + scripts.getBytecodeHits() + " script(s) loaded from bytecode cache, "
+            + scripts.getBytecodeMisses() + " compiled)");
     }
 
     @Override
@@ -215,11 +224,13 @@ public class Undertailor extends ApplicationAdapter {
         this.assets.update(); // update any loading tasks
         this.renderer.clear();
         this.input.update(); // Prepare input for current frame.
+        AnimationClock.update(); // Sample animation time for current frame.
 
         this.environments.render();
         this.environments.process();
 
         this.renderer.flush(); // Flush graphics for next frame.
+        this.renderer.endFrame(); // Record render statistics for the frame.
         if (this.focused != Display.isActive()) {
             this.focused = Display.isActive();
             this.environments.callEvent(new Event(Event.EVT_FOCUSCHANGED));
@@ -31,6 +31,7 @@
 package me.scarlet.undertailor.engine.overworld;
 
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 
 import me.scarlet.undertailor.engine.overworld.map.TilemapFactory.Tilemap;
@@ -45,6 +46,7 @@ public class OverworldCamera extends OrthographicCamera {
     private boolean fixing;
     private Vector2 offset;
     private Vector2 position;
+    private Rectangle viewBounds;
     private OverworldController parent;
 
     public OverworldCamera(OverworldController parent) {
@@ -53,6 +55,7 @@ public class OverworldCamera extends OrthographicCamera {
         this.parent = parent;
         this.offset = new Vector2(0, 0);
         this.position = new Vector2(0, 0);
+        this.viewBounds = new Rectangle();
         this.setPosition(0, 0); // ensure internal camera
         this.setZoom(2F);
 
@@ -121,6 +124,28 @@ public class OverworldCamera extends OrthographicCamera {
         this.setPosition(this.position.x, this.position.y);
     }
 
+    /**
+     * Returns the area of the overworld currently visible
+     * through this {@link OverworldCamera}, in pixels.
+     * 
+     * <p>The bounds are derived from the position the
+     * camera is actually rendering at, and therefore factor
+     * in the current zoom level and any offset applied to
+     * it.</p>
+     * 
+     * <p>Directly modifying the returned {@link Rectangle}
+     * will not change the camera, as the Rectangle is
+     * reused and recalculated on every call.</p>
+     * 
+     * @return the visible bounds of this OverworldCamera
+     */
+    public Rectangle getViewBounds() {
+        float width = this.viewportWidth * Math.abs(super.zoom);
+        float height = this.viewportHeight * Math.abs(super.zoom);
+        return this.viewBounds.set(super.position.x - (width / 2F),
+            super.position.y - (height / 2F), width, height);
+    }
+
     /**
      * Returns the zoom level of this
      * {@link OverworldCamera}.
@@ -76,6 +76,7 @@ public class OverworldController
     // overworld-related
     private CollisionHandler collision;
     private boolean playTransitions;
+    private boolean deferred;
     private Pair<Task> transitions;
     private WorldObject character;
     private WorldRoom room;
@@ -87,6 +88,7 @@ public class OverworldController
         this.transitions = new Pair<>();
         this.environment = environment;
         this.playTransitions = true;
+        this.deferred = false;
         this.renderer = renderer;
         this.character = null;
         this.room = null;
@@ -120,7 +122,14 @@ public class OverworldController
         this.renderer.setProjectionMatrix(this.camera.combined);
 
         if (this.room != null) {
+            if (this.deferred) {
+                this.renderer.beginDeferred();
+            }
+
             this.room.render();
+            if (this.deferred) {
+                this.renderer.endDeferred();
+            }
         }
 
         if (Undertailor.isDebug()) {
@@ -381,6 +390,40 @@ public class OverworldController
         this.playTransitions = playingTransitions;
     }
 
+    /**
+     * Returns whether or not this
+     * {@link OverworldController} defers the drawing of its
+     * room.
+     * 
+     * @return if this Overworld renders deferred
+     * 
+     * @see MultiRenderer#beginDeferred()
+     */
+    public boolean isDeferredRendering() {
+        return this.deferred;
+    }
+
+    /**
+     * Sets whether or not this {@link OverworldController}
+     * defers the drawing of its room.
+     * 
+     * <p>When deferred, draws of all objects and tile
+     * layers of the room sharing a texture are grouped
+     * wherever they don't overlap draws of other textures.
+     * Draws overlapping each other keep their order.
+     * Sub-layers set explicitly by an object only last
+     * until the next object is rendered.</p>
+     * 
+     * @param deferred if this Overworld should render
+     *        deferred
+     * 
+     * @see MultiRenderer#beginDeferred()
+     * @see MultiRenderer#setDeferredSubLayer(int)
+     */
+    public void setDeferredRendering(boolean deferred) {
+        this.deferred = deferred;
+    }
+
     /**
      * Sets the {@link Task} played upon entering any room.
      * 
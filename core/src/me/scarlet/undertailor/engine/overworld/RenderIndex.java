@@ -0,0 +1,331 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Tellerva, Marc Lawrence
+ *
+ * Permission is hereby granted, free of charge, to any
+ * person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the
+ * Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge,
+ * publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice
+ * shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package me.scarlet.undertailor.engine.overworld;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import me.scarlet.undertailor.engine.Layerable;
+import me.scarlet.undertailor.engine.Positionable;
+import me.scarlet.undertailor.engine.overworld.map.TileLayer;
+
+/**
+ * Maintains the render order of the contents of a
+ * {@link WorldRoom}.
+ * 
+ * <p>Entries are kept in buckets, one per layer, ordered by
+ * their layer index. Within a bucket, {@link TileLayer}s
+ * come first in order of their IDs, followed by every other
+ * entry ordered by descending Y position. Entries sharing a
+ * Y position are ordered by when they were added.</p>
+ * 
+ * <p>Tile and image layers never move, and are placed once
+ * when added. Only the layer and Y position of
+ * {@link WorldObject}s are sampled every frame, and only
+ * the buckets whose contents have moved get re-sorted. As
+ * positions rarely change much between frames, said
+ * buckets are re-sorted with an insertion sort.</p>
+ */
+class RenderIndex {
+
+    /**
+     * An entry in the render index.
+     */
+    static class Entry {
+
+        Layerable obj;
+        WorldObject worldObj;
+        short layer;
+        float y;
+        long order;
+    }
+
+    /**
+     * A set of entries sharing a layer index.
+     */
+    static class Bucket {
+
+        short layer;
+        boolean dirty;
+        Array<TileLayer> tileLayers;
+        Array<Entry> entries;
+
+        Bucket(short layer) {
+            this.layer = layer;
+            this.dirty = false;
+            this.tileLayers = new Array<>(true, 4, TileLayer.class);
+            this.entries = new Array<>(true, 16, Entry.class);
+        }
+    }
+
+    private long nextOrder;
+    private boolean changed;
+    private Array<Bucket> buckets;
+    private Array<Entry> moved;
+    private Array<Layerable> flattened;
+    private ObjectMap<Layerable, Entry> entries;
+
+    RenderIndex() {
+        this.nextOrder = 0;
+        this.changed = false;
+        this.buckets = new Array<>(true, 8, Bucket.class);
+        this.moved = new Array<>(true, 8, Entry.class);
+        this.flattened = new Array<>(true, 16);
+        this.entries = new ObjectMap<>();
+    }
+
+    /**
+     * Adds the provided object to this {@link RenderIndex}.
+     * 
+     * @param obj the object to add
+     */
+    void add(Layerable obj) {
+        if (this.entries.containsKey(obj)) {
+            return;
+        }
+
+        Bucket bucket = this.getBucket(obj.getLayer(), true);
+        if (obj instanceof TileLayer) {
+            TileLayer layer = (TileLayer) obj;
+            int i = bucket.tileLayers.size;
+            while (i > 0 && bucket.tileLayers.get(i - 1).getId() > layer.getId()) {
+                i--;
+            }
+
+            bucket.tileLayers.insert(i, layer);
+            this.entries.put(obj, null);
+        } else {
+            Entry entry = new Entry();
+            entry.obj = obj;
+            entry.worldObj = obj instanceof WorldObject ? (WorldObject) obj : null;
+            entry.layer = bucket.layer;
+            entry.y = entry.worldObj != null ? entry.worldObj.getSortY()
+                : ((Positionable) obj).getPosition().y;
+            entry.order = this.nextOrder++;
+
+            bucket.entries.add(entry);
+            bucket.dirty = true;
+            this.entries.put(obj, entry);
+        }
+
+        this.changed = true;
+    }
+
+    /**
+     * Removes the provided object from this
+     * {@link RenderIndex}.
+     * 
+     * @param obj the object to remove
+     */
+    void remove(Layerable obj) {
+        if (!this.entries.containsKey(obj)) {
+            return;
+        }
+
+        Entry entry = this.entries.remove(obj);
+        if (entry == null) {
+            Bucket bucket = this.getBucket(obj.getLayer(), false);
+            if (bucket != null) {
+                bucket.tileLayers.removeValue((TileLayer) obj, true);
+            }
+        } else {
+            Bucket bucket = this.getBucket(entry.layer, false);
+            if (bucket != null) {
+                bucket.entries.removeValue(entry, true);
+            }
+        }
+
+        this.changed = true;
+    }
+
+    /**
+     * Refreshes the positions of moving objects and returns
+     * the contents of this {@link RenderIndex} in render
+     * order.
+     * 
+     * <p>The returned array is reused between calls, and
+     * should not be modified.</p>
+     * 
+     * @return the contents of this RenderIndex in render
+     *         order
+     */
+    Array<Layerable> update() {
+        // sample the objects, collecting those switching layers
+        Bucket[] buckets = this.buckets.items;
+        for (int i = 0; i < this.buckets.size; i++) {
+            Bucket bucket = buckets[i];
+            Entry[] entries = bucket.entries.items;
+            for (int j = bucket.entries.size - 1; j >= 0; j--) {
+                Entry entry = entries[j];
+                if (entry.worldObj == null) {
+                    continue;
+                }
+
+                short layer = entry.worldObj.getLayer();
+                if (layer != entry.layer) {
+                    bucket.entries.removeIndex(j);
+                    entry.layer = layer;
+                    this.moved.add(entry);
+                    continue;
+                }
+
+                float y = entry.worldObj.getSortY();
+                if (y != entry.y) {
+                    entry.y = y;
+                    bucket.dirty = true;
+                }
+            }
+        }
+
+        if (this.moved.size > 0) {
+            for (int i = 0; i < this.moved.size; i++) {
+                Entry entry = this.moved.get(i);
+                Bucket bucket = this.getBucket(entry.layer, true);
+                bucket.entries.add(entry);
+                bucket.dirty = true;
+            }
+
+            this.moved.clear();
+            this.changed = true;
+        }
+
+        for (int i = 0; i < this.buckets.size; i++) {
+            Bucket bucket = this.buckets.get(i);
+            if (bucket.dirty) {
+                if (RenderIndex.sort(bucket.entries)) {
+                    this.changed = true;
+                }
+
+                bucket.dirty = false;
+            }
+        }
+
+        if (this.changed) {
+            this.flatten();
+            this.changed = false;
+        }
+
+        return this.flattened;
+    }
+
+    // ---------------- internal methods ----------------
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns the bucket for the provided layer,
+     * optionally creating it if it does not exist.</p>
+     */
+    private Bucket getBucket(short layer, boolean create) {
+        int low = 0;
+        int high = this.buckets.size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            short midLayer = this.buckets.get(mid).layer;
+            if (midLayer < layer) {
+                low = mid + 1;
+            } else if (midLayer > layer) {
+                high = mid - 1;
+            } else {
+                return this.buckets.get(mid);
+            }
+        }
+
+        if (!create) {
+            return null;
+        }
+
+        Bucket bucket = new Bucket(layer);
+        this.buckets.insert(low, bucket);
+        return bucket;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Rebuilds the flattened render order from the
+     * buckets.</p>
+     */
+    private void flatten() {
+        this.flattened.clear();
+        for (int i = 0; i < this.buckets.size; i++) {
+            Bucket bucket = this.buckets.get(i);
+            for (int j = 0; j < bucket.tileLayers.size; j++) {
+                this.flattened.add(bucket.tileLayers.get(j));
+            }
+
+            for (int j = 0; j < bucket.entries.size; j++) {
+                this.flattened.add(bucket.entries.get(j).obj);
+            }
+        }
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Insertion sorts the provided entries by descending
+     * Y position, then by order of addition. Returns
+     * whether or not any entries were moved.</p>
+     */
+    private static boolean sort(Array<Entry> array) {
+        boolean moved = false;
+        Entry[] entries = array.items;
+        for (int i = 1; i < array.size; i++) {
+            Entry entry = entries[i];
+            int j = i - 1;
+            while (j >= 0 && RenderIndex.isBefore(entry, entries[j])) {
+                entries[j + 1] = entries[j];
+                j--;
+            }
+
+            if (j != i - 1) {
+                entries[j + 1] = entry;
+                moved = true;
+            }
+        }
+
+        return moved;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns whether or not the first entry is to be
+     * rendered before the second.</p>
+     */
+    private static boolean isBefore(Entry first, Entry second) {
+        if (first.y != second.y) {
+            return first.y > second.y;
+        }
+
+        return first.order < second.order;
+    }
+}
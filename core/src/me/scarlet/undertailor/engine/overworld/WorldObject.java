@@ -127,6 +127,22 @@ public abstract class WorldObject implements Renderable, Layerable, Processable,
         this.def.position.set(x, y);
     }
 
+    /**
+     * Internal method.
+     * 
+     * <p>Returns the current Y position of this
+     * {@link WorldObject}, in pixels, without updating its
+     * proxy position. Used when ordering objects for
+     * rendering.</p>
+     */
+    float getSortY() {
+        if (this.body != null) {
+            return this.body.getPosition().y * OverworldController.METERS_TO_PIXELS;
+        }
+
+        return this.def.position.y;
+    }
+
     @Override
     public float getHeight() {
         return this.height;
@@ -30,6 +30,7 @@
 
 package me.scarlet.undertailor.engine.overworld;
 
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
@@ -43,10 +44,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import me.scarlet.undertailor.engine.Destructible;
-import me.scarlet.undertailor.engine.Identifiable;
 import me.scarlet.undertailor.engine.Layerable;
 import me.scarlet.undertailor.engine.Modular;
-import me.scarlet.undertailor.engine.Positionable;
 import me.scarlet.undertailor.engine.PotentialDelay;
 import me.scarlet.undertailor.engine.Processable;
 import me.scarlet.undertailor.engine.events.Event;
@@ -58,7 +57,6 @@ import me.scarlet.undertailor.engine.overworld.map.TilemapFactory.Tilemap;
 import me.scarlet.undertailor.gfx.MultiRenderer;
 import me.scarlet.undertailor.gfx.Renderable;
 
-import java.util.Comparator;
 import java.util.Iterator;
 
 /**
@@ -67,40 +65,8 @@ import java.util.Iterator;
 public abstract class WorldRoom implements Renderable, Processable, Destructible, EventListener,
     Modular<OverworldController>, PotentialDelay {
 
-    static final Comparator<Layerable> RENDER_COMPARATOR;
     static final Logger log = LoggerFactory.getLogger(WorldRoom.class);
 
-    static {
-        RENDER_COMPARATOR = (Layerable obj1, Layerable obj2) -> {
-            // World Objects and Image Layers MUST come on top of a Tile Layer.
-            // Positionable identifies both World Objects and Image Layers.
-
-            if (obj1.getLayer() == obj2.getLayer()) {
-                if (obj1 instanceof Positionable && obj2 instanceof Positionable) {
-                    float y1 = ((Positionable) obj1).getPosition().y;
-                    float y2 = ((Positionable) obj2).getPosition().y;
-
-                    if (y1 == y2) {
-                        return 1;
-                    }
-
-                    return Float.compare(y2, y1);
-                }
-
-                if (obj1 instanceof TileLayer && obj2 instanceof TileLayer) {
-                    long i1 = ((Identifiable) obj1).getId();
-                    long i2 = ((Identifiable) obj2).getId();
-
-                    return Long.compare(i1, i2);
-                }
-
-                return obj1 instanceof TileLayer ? -1 : 1;
-            }
-
-            return Short.compare(obj1.getLayer(), obj2.getLayer());
-        };
-    }
-
     // while delayed
     private boolean prepared;
     private ObjectSet<WorldObject> bodyQueue;
@@ -115,7 +81,7 @@ public abstract class WorldRoom implements Renderable, Processable, Destructible
     private ObjectMap<String, Entrypoint> entrypoints;
     private ObjectMap<String, ObjectSet<Body>> collisionLayers;
     private IntFloatMap opacityMapping;
-    private Array<Layerable> renderOrder;
+    private RenderIndex renderOrder;
     private ObjectSet<String> disabledCollision;
 
     public WorldRoom(Tilemap map) {
@@ -131,7 +97,7 @@ public abstract class WorldRoom implements Renderable, Processable, Destructible
         this.entrypoints = new ObjectMap<>();
         this.opacityMapping = new IntFloatMap();
         this.collisionLayers = new ObjectMap<>();
-        this.renderOrder = new Array<>(true, 16);
+        this.renderOrder = new RenderIndex();
         this.disabledCollision = new ObjectSet<>();
     }
 
@@ -166,9 +132,16 @@ public abstract class WorldRoom implements Renderable, Processable, Destructible
     public void render(float x, float y) {
         Array<Layerable> rendered = this.getInRenderOrder();
         MultiRenderer renderer = this.controller.getRenderer();
+        Rectangle viewBounds = this.controller.getCamera().getViewBounds();
         rendered.forEach(obj -> {
+            // sub-layers set by an object don't carry over to the next one
+            renderer.setDeferredSubLayer(-1);
             renderer.setBatchColor(renderer.getBatchColor(), this.getLayerOpacity(obj.getLayer()));
-            ((Renderable) obj).render();
+            if (obj instanceof TileLayer) {
+                ((TileLayer) obj).render(0, 0, viewBounds);
+            } else {
+                ((Renderable) obj).render();
+            }
         });
     }
 
@@ -180,6 +153,7 @@ public abstract class WorldRoom implements Renderable, Processable, Destructible
             WorldObject next = iter.next();
             if (next.isDestroyed() || next.getRoom() != this) {
                 iter.remove();
+                this.renderOrder.remove(next);
             } else {
                 next.process();
             }
@@ -389,7 +363,7 @@ public abstract class WorldRoom implements Renderable, Processable, Destructible
     public void removeObject(WorldObject obj) {
         if (obj.release(this)) {
             this.obj.remove(obj);
-            this.renderOrder.removeValue(obj, false);
+            this.renderOrder.remove(obj);
             obj.destroy();
         }
     }
@@ -510,6 +484,10 @@ public abstract class WorldRoom implements Renderable, Processable, Destructible
      * back" appear how they should. For objects with a same
      * Y position, its first come, first serve.</p>
      * 
+     * <p>The order is maintained incrementally by a
+     * {@link RenderIndex}; only objects that have moved
+     * since the last call are re-sorted.</p>
+     * 
      * <p>Rules for draw order are as follows (tl;dr).</p>
      * 
      * <pre>
@@ -528,8 +506,7 @@ public abstract class WorldRoom implements Renderable, Processable, Destructible
      * </pre>
      */
     private Array<Layerable> getInRenderOrder() {
-        this.renderOrder.sort(RENDER_COMPARATOR);
-        return this.renderOrder;
+        return this.renderOrder.update();
     }
 
     /**
@@ -30,30 +30,75 @@
 
 package me.scarlet.undertailor.engine.overworld.map;
 
-import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.TimeUtils;
-
+import me.scarlet.undertailor.gfx.AnimationClock;
 import me.scarlet.undertailor.gfx.Renderable;
 import me.scarlet.undertailor.gfx.spritesheet.Sprite;
-import me.scarlet.undertailor.util.Tuple;
 
 /**
  * An animated tile.
+ * 
+ * <p>Frame timings are stored separately from the frames'
+ * {@link Sprite}s and are shared between an AnimatedTile
+ * and its clones. The frame to display is resolved against
+ * the {@link AnimationClock} at most once per frame for
+ * each set of timings, regardless of how many times the
+ * tile or its clones are drawn.</p>
  */
 public class AnimatedTile implements Renderable, Cloneable {
 
-    private static long origin;
+    /**
+     * The frame timings of an {@link AnimatedTile}.
+     */
+    static class Timeline {
+
+        long length;
+        long[] frameEnds;
+
+        long sampledFrame;
+        int currentIndex;
+
+        Timeline(long[] frameEnds) {
+            this.frameEnds = frameEnds;
+            this.length = frameEnds.length > 0 ? frameEnds[frameEnds.length - 1] : 0;
+            this.sampledFrame = -1;
+            this.currentIndex = 0;
+        }
+
+        /**
+         * Returns the index of the frame to display during
+         * the current clock frame.
+         */
+        int getCurrentIndex() {
+            long frame = AnimationClock.getFrame();
+            if (this.sampledFrame != frame) {
+                long runtime = AnimationClock.getTime() % this.length;
 
-    static {
-        origin = TimeUtils.millis();
+                // first frame ending after the current runtime
+                int low = 0;
+                int high = this.frameEnds.length - 1;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (this.frameEnds[mid] > runtime) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                }
+
+                this.currentIndex = low;
+                this.sampledFrame = frame;
+            }
+
+            return this.currentIndex;
+        }
     }
 
-    private Array<Tuple<Long, Sprite>> frames;
-    private long length;
+    private Timeline timeline;
+    private Sprite[] frames;
 
     public AnimatedTile() {
-        this.frames = new Array<>(true, 8);
-        this.length = 0;
+        this.timeline = new Timeline(new long[0]);
+        this.frames = new Sprite[0];
     }
 
     /**
@@ -63,58 +108,79 @@ public class AnimatedTile implements Renderable, Cloneable {
      * @param tile the frame
      */
     public void addFrame(long duration, Sprite tile) {
-        this.frames.add(new Tuple<>(duration, tile));
-        this.length = 0;
-        for (int i = 0; i < this.frames.size; i++) {
-            this.length += this.frames.get(i).getA();
-        }
+        int count = this.frames.length;
+        long[] frameEnds = new long[count + 1];
+        Sprite[] frames = new Sprite[count + 1];
+        System.arraycopy(this.timeline.frameEnds, 0, frameEnds, 0, count);
+        System.arraycopy(this.frames, 0, frames, 0, count);
+
+        frameEnds[count] = this.timeline.length + duration;
+        frames[count] = tile;
+
+        // timelines are shared with clones; replace instead of modifying
+        this.timeline = new Timeline(frameEnds);
+        this.frames = frames;
     }
 
     /**
-     * Returns an array of all frames registered with this
+     * Returns the count of frames registered with this
      * {@link AnimatedTile}.
      * 
-     * @return an array of this AnimatedTile's frames
+     * @return the count of this AnimatedTile's frames
      */
-    public Array<Tuple<Long, Sprite>> getFrames() {
-        return this.frames;
+    public int getFrameCount() {
+        return this.frames.length;
+    }
+
+    /**
+     * Returns the {@link Sprite} displayed by the frame at
+     * the given index.
+     * 
+     * @param index the index of the frame
+     * 
+     * @return the frame's Sprite
+     */
+    public Sprite getFrame(int index) {
+        return this.frames[index];
+    }
+
+    /**
+     * Returns how long the frame at the given index is
+     * displayed, in milliseconds.
+     * 
+     * @param index the index of the frame
+     * 
+     * @return the frame's duration
+     */
+    public long getFrameDuration(int index) {
+        long start = index == 0 ? 0 : this.timeline.frameEnds[index - 1];
+        return this.timeline.frameEnds[index] - start;
     }
 
     @Override
     public void render(float x, float y) {
-        long runtime = TimeUtils.timeSinceMillis(AnimatedTile.origin) % length;
-        long duration = 0;
-        Sprite frame = null;
-        for (int i = 0; i < this.frames.size; i++) {
-            Tuple<Long, Sprite> key = this.frames.get(i);
-            duration += key.getA();
-            frame = key.getB();
-            if (duration > runtime) {
-                break;
-            }
+        if (this.timeline.length <= 0) {
+            return;
         }
 
-        if (frame != null) {
-            frame.render(x, y);
-        }
+        this.frames[this.timeline.getCurrentIndex()].render(x, y);
     }
 
     /**
      * Clones this {@link AnimatedTile}.
      * 
-     * <p>The underlying {@link Sprite}s are also
-     * cloned.</p>
+     * <p>The underlying {@link Sprite}s are also cloned.
+     * The frame timings are shared with the clone.</p>
      * 
      * @return a copy of this AnimatedTile
      */
     public AnimatedTile clone() {
         AnimatedTile clone = new AnimatedTile();
-        clone.frames = new Array<>(true, 8);
-        clone.length = this.length;
-
-        this.frames.forEach(entry -> {
-            clone.frames.add(new Tuple<>(entry.getA(), entry.getB().clone()));
-        });
+        clone.timeline = this.timeline;
+        clone.frames = new Sprite[this.frames.length];
+        for (int i = 0; i < this.frames.length; i++) {
+            clone.frames[i] = this.frames[i].clone();
+        }
 
         return clone;
     }
@@ -0,0 +1,269 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Tellerva, Marc Lawrence
+ *
+ * Permission is hereby granted, free of charge, to any
+ * person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the
+ * Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge,
+ * publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice
+ * shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package me.scarlet.undertailor.engine.overworld.map;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import me.scarlet.undertailor.gfx.MultiRenderer;
+import me.scarlet.undertailor.gfx.Transform;
+import me.scarlet.undertailor.gfx.spritesheet.Sprite;
+import me.scarlet.undertailor.gfx.spritesheet.Sprite.SpriteMeta;
+
+/**
+ * A square section of a {@link TileLayer}, holding the
+ * vertices of its static tiles baked in advance.
+ * 
+ * <p>Static tiles are baked into a vertex buffer in the
+ * format used by libGDX's SpriteBatch, grouped into runs of
+ * consecutive tiles sharing a texture, and replayed with a
+ * single draw call per run. Tiles that cannot be baked,
+ * such as {@link AnimatedTile}s, are kept aside and
+ * rendered normally on top.</p>
+ */
+class TileChunk {
+
+    static final int SPRITE_SIZE = 20;
+
+    int tileCount;
+
+    boolean baked;
+    float bakedX;
+    float bakedY;
+    float bakedColor;
+
+    float[] vertices;
+    int vertexCount;
+
+    int runCount;
+    int[] runEnds;
+    Texture[] runTextures;
+
+    int dynamicCount;
+    int[] dynamicTiles;
+
+    TileChunk() {
+        this.baked = false;
+        this.runEnds = new int[1];
+        this.runTextures = new Texture[1];
+        this.dynamicTiles = new int[0];
+    }
+
+    /**
+     * Drops the baked vertices of this {@link TileChunk},
+     * forcing them to be rebuilt the next time the chunk is
+     * rendered.
+     */
+    void invalidate() {
+        this.baked = false;
+        this.vertices = null;
+        this.runTextures = new Texture[1];
+        this.dynamicTiles = new int[0];
+    }
+
+    /**
+     * Bakes the tiles of the given area into this
+     * {@link TileChunk}.
+     * 
+     * @param layer the owning TileLayer
+     * @param lookup the GID lookup of the parent Tilemap
+     * @param x the x coordinate the layer is drawn at
+     * @param y the y coordinate the layer is drawn at
+     * @param color the packed color to bake with
+     */
+    void bake(TileLayer layer, Tile[] lookup, float x, float y, int startCol, int startRow,
+        int endCol, int endRow, float color) {
+        int width = layer.parent.width;
+        int height = layer.parent.height;
+
+        this.vertices = new float[this.tileCount * SPRITE_SIZE];
+        this.dynamicTiles = new int[this.tileCount];
+        this.vertexCount = 0;
+        this.dynamicCount = 0;
+        this.runCount = 0;
+
+        for (int row = startRow; row < endRow; row++) {
+            int tileY = height - 1 - row;
+            for (int col = startCol; col < endCol; col++) {
+                int index = (row * width) + col;
+                int gid = layer.tiles[index];
+                if (gid <= 0 || gid >= lookup.length || lookup[gid] == null) {
+                    continue;
+                }
+
+                Tile tile = lookup[gid];
+                if (!this.isStatic(tile)) {
+                    this.dynamicTiles[this.dynamicCount++] = index;
+                    continue;
+                }
+
+                Sprite sprite = (Sprite) tile.renderable;
+                Texture texture = sprite.getTextureRegion().getTexture();
+                if (this.runCount == 0 || this.runTextures[this.runCount - 1] != texture) {
+                    this.addRun(texture);
+                }
+
+                this.putVertices(sprite, x + (20 * col), y + (20 * tileY), color);
+                this.runEnds[this.runCount - 1] = this.vertexCount;
+            }
+        }
+
+        this.bakedX = x;
+        this.bakedY = y;
+        this.bakedColor = color;
+        this.baked = true;
+    }
+
+    /**
+     * Replays the baked vertices of this {@link TileChunk},
+     * followed by its dynamic tiles.
+     */
+    void render(TileLayer layer, MultiRenderer renderer, Tile[] lookup, float x, float y,
+        float color) {
+        if (color != this.bakedColor) {
+            for (int i = 2; i < this.vertexCount; i += 5) {
+                this.vertices[i] = color;
+            }
+
+            this.bakedColor = color;
+        }
+
+        int start = 0;
+        for (int i = 0; i < this.runCount; i++) {
+            renderer.draw(this.runTextures[i], this.vertices, start, this.runEnds[i] - start);
+            start = this.runEnds[i];
+        }
+
+        int width = layer.parent.width;
+        int height = layer.parent.height;
+        for (int i = 0; i < this.dynamicCount; i++) {
+            int index = this.dynamicTiles[i];
+            int tileY = height - 1 - (index / width);
+            lookup[layer.tiles[index]].render(x + (20 * (index % width)), y + (20 * tileY));
+        }
+    }
+
+    /**
+     * Returns the byte count used by the baked vertices of
+     * this {@link TileChunk}.
+     */
+    int getVertexMemory() {
+        return this.vertices == null ? 0 : this.vertices.length * 4;
+    }
+
+    // ---------------- internal methods ----------------
+
+    /**
+     * Internal method.
+     * 
+     * <p>Checks whether or not the provided {@link Tile}
+     * can be baked. Only untransformed sprites can.</p>
+     */
+    private boolean isStatic(Tile tile) {
+        if (!(tile.renderable instanceof Sprite)) {
+            return false;
+        }
+
+        Transform transform = ((Sprite) tile.renderable).getTransform();
+        return transform.getScaleX() == 1F && transform.getScaleY() == 1F
+            && transform.getRotation() == 0F && !transform.getFlipX() && !transform.getFlipY();
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Starts a new run of vertices drawn with the given
+     * texture.</p>
+     */
+    private void addRun(Texture texture) {
+        if (this.runCount == this.runTextures.length) {
+            Texture[] textures = new Texture[this.runCount * 2];
+            int[] ends = new int[this.runCount * 2];
+            System.arraycopy(this.runTextures, 0, textures, 0, this.runCount);
+            System.arraycopy(this.runEnds, 0, ends, 0, this.runCount);
+            this.runTextures = textures;
+            this.runEnds = ends;
+        }
+
+        this.runTextures[this.runCount] = texture;
+        this.runEnds[this.runCount] = this.vertexCount;
+        this.runCount++;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Writes the vertices of the provided sprite drawn
+     * at the given position, as SpriteBatch would.</p>
+     */
+    private void putVertices(Sprite sprite, float x, float y, float color) {
+        TextureRegion region = sprite.getTextureRegion();
+        SpriteMeta meta = sprite.getMeta();
+        if (meta != null) {
+            x += meta.offX - meta.originX;
+            y += meta.offY - meta.originY;
+        }
+
+        float x2 = x + region.getRegionWidth();
+        float y2 = y + region.getRegionHeight();
+        float u = region.getU();
+        float v = region.getV2();
+        float u2 = region.getU2();
+        float v2 = region.getV();
+
+        float[] vertices = this.vertices;
+        int idx = this.vertexCount;
+        vertices[idx++] = x;
+        vertices[idx++] = y;
+        vertices[idx++] = color;
+        vertices[idx++] = u;
+        vertices[idx++] = v;
+
+        vertices[idx++] = x;
+        vertices[idx++] = y2;
+        vertices[idx++] = color;
+        vertices[idx++] = u;
+        vertices[idx++] = v2;
+
+        vertices[idx++] = x2;
+        vertices[idx++] = y2;
+        vertices[idx++] = color;
+        vertices[idx++] = u2;
+        vertices[idx++] = v2;
+
+        vertices[idx++] = x2;
+        vertices[idx++] = y;
+        vertices[idx++] = color;
+        vertices[idx++] = u2;
+        vertices[idx++] = v;
+        this.vertexCount = idx;
+    }
+}
@@ -30,27 +30,62 @@
 
 package me.scarlet.undertailor.engine.overworld.map;
 
+import com.badlogic.gdx.math.Rectangle;
+
 import me.scarlet.undertailor.engine.Identifiable;
 import me.scarlet.undertailor.engine.Layerable;
 import me.scarlet.undertailor.engine.overworld.map.TilemapFactory.Tilemap;
 import me.scarlet.undertailor.engine.overworld.map.TilesetFactory.Tileset;
+import me.scarlet.undertailor.gfx.MultiRenderer;
 import me.scarlet.undertailor.gfx.Renderable;
 
 /**
  * A layer of a set of images defined by a {@link Tileset}
  * placed in a grid.
+ * 
+ * <p>Tiles are grouped into square chunks of
+ * {@link #CHUNK_SIZE} tiles per side. When rendered with a
+ * set of view bounds, only the chunks intersecting said
+ * bounds are drawn.</p>
+ * 
+ * <p>The static tiles of each chunk are baked into a vertex
+ * cache the first time the chunk is drawn, and are
+ * replayed from said cache afterwards. The caches are
+ * dropped whenever the lookup table of the parent
+ * {@link Tilemap} is rebuilt, which happens when any of its
+ * tilesets are disposed or reloaded.</p>
  */
 public class TileLayer implements Layerable, Renderable, Identifiable {
 
+    /**
+     * The width and height of a single render chunk, in
+     * tiles.
+     */
+    public static final int CHUNK_SIZE = 16;
+
     short id;
     short layer;
     int[] tiles;
     String name;
     Tilemap parent;
     boolean layerSet;
+    MultiRenderer renderer;
+
+    // chunking
+    int chunksX;
+    int chunksY;
+    TileChunk[] chunks;
+    Tile[] bakedLookup;
+    int tileCount;
+
+    // render stats
+    int drawnTiles;
+    int culledTiles;
 
     TileLayer() {
         this.layerSet = false;
+        this.chunks = null;
+        this.bakedLookup = null;
     }
 
     @Override
@@ -72,24 +107,175 @@ public class TileLayer implements Layerable, Renderable, Identifiable {
     // Origin bottomleft.
     @Override
     public void render(float x, float y) {
-        int tileY = parent.getHeight() - 1;
-        int tileX = 0;
+        this.render(x, y, null);
+    }
 
-        for (int i = 0; i < tiles.length; i++) {
-            if (tiles[i] != 0) {
-                Tile tile = parent.getTile(tiles[i]);
-                if(tile != null) {
-                    float drawX = (x + (20 * tileX));
-                    float drawY = (y + (20 * tileY));
-                    tile.render(drawX, drawY);
+    /**
+     * Draws the chunks of this {@link TileLayer} visible
+     * within the provided bounds.
+     * 
+     * <p>Providing null bounds renders the entire
+     * layer.</p>
+     * 
+     * @param x the x coordinate to draw the layer at
+     * @param y the y coordinate to draw the layer at
+     * @param bounds the visible area, in pixels, or null
+     */
+    public void render(float x, float y, Rectangle bounds) {
+        this.drawnTiles = 0;
+        this.culledTiles = 0;
+        if (!parent.isLoaded()) {
+            return;
+        }
+
+        if (this.chunks == null) {
+            this.prepareChunks();
+        }
+
+        int minChunkX = 0;
+        int minChunkY = 0;
+        int maxChunkX = this.chunksX - 1;
+        int maxChunkY = this.chunksY - 1;
+        Tile[] lookup = parent.getTileLookup();
+        if (lookup != this.bakedLookup) {
+            this.invalidateChunks();
+            this.bakedLookup = lookup;
+        }
+
+        float color = renderer.getBatchColor().toFloatBits();
+        if (bounds != null) {
+            // tiles can overhang their cell up and to the right
+            int minCol = (int) Math.floor((bounds.x - x - parent.tileOverhangX) / 20F);
+            int maxCol = (int) Math.floor((bounds.x + bounds.width - x) / 20F);
+            int minRow = parent.height - 1
+                - (int) Math.floor((bounds.y + bounds.height - y) / 20F);
+            int maxRow = parent.height - 1
+                - (int) Math.floor((bounds.y - y - parent.tileOverhangY) / 20F);
+
+            minChunkX = Math.max(minChunkX, Math.floorDiv(minCol, CHUNK_SIZE));
+            maxChunkX = Math.min(maxChunkX, Math.floorDiv(maxCol, CHUNK_SIZE));
+            minChunkY = Math.max(minChunkY, Math.floorDiv(minRow, CHUNK_SIZE));
+            maxChunkY = Math.min(maxChunkY, Math.floorDiv(maxRow, CHUNK_SIZE));
+        }
+
+        for (int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++) {
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                TileChunk chunk = this.chunks[(chunkY * this.chunksX) + chunkX];
+                if (chunk.tileCount > 0) {
+                    this.renderChunk(chunk, lookup, x, y, chunkX, chunkY, color);
                 }
             }
+        }
+
+        this.culledTiles = this.tileCount - this.drawnTiles;
+    }
+
+    /**
+     * Returns the count of tiles submitted for drawing
+     * during the last time this {@link TileLayer} was
+     * rendered.
+     * 
+     * @return the count of tiles drawn last render
+     */
+    public int getDrawnTileCount() {
+        return this.drawnTiles;
+    }
+
+    /**
+     * Returns the count of tiles skipped for being outside
+     * of the view bounds during the last time this
+     * {@link TileLayer} was rendered.
+     * 
+     * @return the count of tiles culled last render
+     */
+    public int getCulledTileCount() {
+        return this.culledTiles;
+    }
+
+    /**
+     * Returns the amount of memory, in bytes, currently
+     * used by the baked vertex caches of this
+     * {@link TileLayer}'s chunks.
+     * 
+     * @return the memory used by this TileLayer's caches
+     */
+    public int getCacheMemory() {
+        if (this.chunks == null) {
+            return 0;
+        }
+
+        int total = 0;
+        for (TileChunk chunk : this.chunks) {
+            total += chunk.getVertexMemory();
+        }
+
+        return total;
+    }
+
+    // ---------------- internal methods ----------------
+
+    /**
+     * Internal method.
+     * 
+     * <p>Splits the tiles of this {@link TileLayer} into
+     * chunks, counting the non-empty tiles within each so
+     * empty chunks can be skipped outright.</p>
+     */
+    void prepareChunks() {
+        int width = parent.width;
+        this.chunksX = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunksY = (parent.height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunks = new TileChunk[this.chunksX * this.chunksY];
+        this.tileCount = 0;
+
+        for (int i = 0; i < this.chunks.length; i++) {
+            this.chunks[i] = new TileChunk();
+        }
 
-            tileX++;
-            if (tileX >= this.parent.width) {
-                tileX = 0;
-                tileY--;
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] != 0) {
+                int chunkX = (i % width) / CHUNK_SIZE;
+                int chunkY = (i / width) / CHUNK_SIZE;
+                this.chunks[(chunkY * this.chunksX) + chunkX].tileCount++;
+                this.tileCount++;
             }
         }
     }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Drops the baked vertices of every chunk.</p>
+     */
+    void invalidateChunks() {
+        if (this.chunks == null) {
+            return;
+        }
+
+        for (TileChunk chunk : this.chunks) {
+            chunk.invalidate();
+        }
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Draws the chunk at the given chunk coordinates,
+     * baking it first if needed. Chunk rows count from the
+     * top of the map, matching the order of the tile
+     * data.</p>
+     */
+    private void renderChunk(TileChunk chunk, Tile[] lookup, float x, float y, int chunkX,
+        int chunkY, float color) {
+        if (!chunk.baked || chunk.bakedX != x || chunk.bakedY != y) {
+            int startCol = chunkX * CHUNK_SIZE;
+            int startRow = chunkY * CHUNK_SIZE;
+            chunk.bake(this, lookup, x, y, startCol, startRow,
+                Math.min(startCol + CHUNK_SIZE, parent.width),
+                Math.min(startRow + CHUNK_SIZE, parent.height), color);
+        }
+
+        chunk.render(this, this.renderer, lookup, x, y, color);
+        this.drawnTiles += chunk.tileCount;
+    }
 }
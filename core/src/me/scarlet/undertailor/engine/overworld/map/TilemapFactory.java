@@ -80,6 +80,12 @@ public class TilemapFactory extends ResourceFactory<Disposable, Tilemap> {
         ObjectMap<String, ObjectLayer> objects;
         OrderedMap<Integer, Tileset> tilesets;
 
+        Tile[] tileLookup;
+        Tileset[] lookupTilesets;
+        int[] lookupGenerations;
+        int tileOverhangX;
+        int tileOverhangY;
+
         Tilemap() {
             this.objects = new ObjectMap<>();
             this.entrypoints = new ObjectMap<>();
@@ -337,13 +343,111 @@ public class TilemapFactory extends ResourceFactory<Disposable, Tilemap> {
                 return null;
             }
 
-            for(int i = gid; i >= 0; i--) {
-                if(tilesets.containsKey(i)) {
-                    return tilesets.get(i).getTile(gid - i);
+            Tile[] lookup = this.getTileLookup();
+            if (gid < 0 || gid >= lookup.length) {
+                return null;
+            }
+
+            return lookup[gid];
+        }
+
+        /**
+         * Internal method.
+         * 
+         * <p>Returns the table resolving GIDs to their
+         * {@link Tile}s, indexed by GID. The table is built
+         * on first access and rebuilt whenever any of this
+         * {@link Tilemap}'s {@link Tileset}s have reloaded
+         * their textures since.</p>
+         * 
+         * <p>Assumes this Tilemap has been loaded.</p>
+         */
+        Tile[] getTileLookup() {
+            if (this.tileLookup == null || this.isTileLookupStale()) {
+                this.buildTileLookup();
+            }
+
+            return this.tileLookup;
+        }
+
+        /**
+         * Internal method.
+         * 
+         * <p>Marks the GID lookup table of this
+         * {@link Tilemap} for rebuilding.</p>
+         */
+        void invalidateTileLookup() {
+            this.tileLookup = null;
+            this.lookupTilesets = null;
+            this.lookupGenerations = null;
+        }
+
+        /**
+         * Internal method.
+         * 
+         * <p>Checks whether or not any of the tilesets the
+         * current lookup table was built from have been
+         * reloaded.</p>
+         */
+        private boolean isTileLookupStale() {
+            for (int i = 0; i < this.lookupTilesets.length; i++) {
+                if (this.lookupTilesets[i].getGeneration() != this.lookupGenerations[i]) {
+                    return true;
                 }
             }
 
-            return null;
+            return false;
+        }
+
+        /**
+         * Internal method.
+         * 
+         * <p>Resolves every GID held by this
+         * {@link Tilemap}'s tilesets into a flat table.
+         * Tilesets are processed in order of their first
+         * GID, later tilesets taking priority over earlier
+         * ones should they overlap.</p>
+         * 
+         * <p>Also records how far the largest tiles reach
+         * past their grid cell, for use when culling.</p>
+         */
+        private void buildTileLookup() {
+            Array<Integer> firstGids = this.tilesets.orderedKeys();
+            Tileset[] sets = new Tileset[firstGids.size];
+            int[] generations = new int[firstGids.size];
+
+            int size = 0;
+            for (int i = 0; i < firstGids.size; i++) {
+                int firstGid = firstGids.get(i);
+                sets[i] = this.tilesets.get(firstGid);
+                size = Math.max(size, firstGid + sets[i].getTileCount());
+            }
+
+            Tile[] lookup = new Tile[size];
+            int overhangX = 0;
+            int overhangY = 0;
+            for (int i = 0; i < firstGids.size; i++) {
+                int firstGid = firstGids.get(i);
+                Tileset tileset = sets[i];
+                generations[i] = tileset.getGeneration();
+
+                int count = tileset.getTileCount();
+                for (int j = 0; j < count; j++) {
+                    Tile tile = tileset.getTile(j);
+                    lookup[firstGid + j] = tile;
+                    if (tile != null) {
+                        overhangX = Math.max(overhangX, tile.getWidth() - 20);
+                        overhangY = Math.max(overhangY, tile.getHeight() - 20);
+                    }
+                }
+            }
+
+            this.tileOverhangX = overhangX;
+            this.tileOverhangY = overhangY;
+
+            this.lookupTilesets = sets;
+            this.lookupGenerations = generations;
+            this.tileLookup = lookup;
         }
     }
 
@@ -154,6 +154,7 @@ public class TilemapReader extends DefaultHandler {
             this.currentTileLayer.name = attributes.getValue("", "name");
             this.currentTileLayer.id = this.layerId++;
             this.currentTileLayer.parent = this.tilemap;
+            this.currentTileLayer.renderer = this.renderer;
             this.layerName =
                 this.currentTileLayer.name == null ? "unnamed layer" : this.currentTileLayer.name;
         }
@@ -462,6 +463,7 @@ public class TilemapReader extends DefaultHandler {
         throws FileNotFoundException, SAXException, IOException {
         FileInputStream stream = null;
         this.tilemap = tilemap;
+        this.tilemap.invalidateTileLookup();
 
         try {
             stream = new FileInputStream(tmxFile);
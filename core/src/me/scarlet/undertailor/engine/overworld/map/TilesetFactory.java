@@ -31,11 +31,11 @@
 package me.scarlet.undertailor.engine.overworld.map;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.IntMap;
-import com.badlogic.gdx.utils.ObjectMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,6 +43,7 @@ import me.scarlet.undertailor.AssetManager;
 import me.scarlet.undertailor.engine.overworld.map.TilesetFactory.Tileset;
 import me.scarlet.undertailor.engine.overworld.map.TilesetReader.TilesetMeta;
 import me.scarlet.undertailor.exception.BadAssetException;
+import me.scarlet.undertailor.gfx.AtlasPacker;
 import me.scarlet.undertailor.gfx.MultiRenderer;
 import me.scarlet.undertailor.gfx.Renderable;
 import me.scarlet.undertailor.gfx.spritesheet.Sprite;
@@ -70,10 +71,41 @@ public class TilesetFactory extends ResourceFactory<Texture, Tileset> {
 
         private TilesetFactory factory;
         private IntMap<Tile> tiles;
+        private int generation;
 
         public Tileset(TilesetFactory factory) {
             this.factory = factory;
             this.tiles = new IntMap<>();
+            this.generation = -1;
+        }
+
+        /**
+         * Returns the count of tiles held by this
+         * {@link Tileset}.
+         * 
+         * @return the count of tiles in this Tileset, or 0
+         *         if not loaded
+         */
+        public int getTileCount() {
+            if (!this.isLoaded()) {
+                return 0;
+            }
+
+            return factory.tiles.size;
+        }
+
+        /**
+         * Internal method.
+         * 
+         * <p>Returns the generation of the texture currently
+         * backing this {@link Tileset}. The value changes
+         * every time the owning factory loads or disposes of
+         * its texture, allowing any structures built on top of
+         * this Tileset's tiles to detect that they've gone
+         * stale.</p>
+         */
+        int getGeneration() {
+            return factory.generation;
         }
 
         /**
@@ -88,6 +120,12 @@ public class TilesetFactory extends ResourceFactory<Texture, Tileset> {
                 return null;
             }
 
+            if (this.generation != factory.generation) {
+                // texture was reloaded; our tiles point to the old one
+                this.tiles.clear();
+                this.generation = factory.generation;
+            }
+
             if (!this.tiles.containsKey(index)) {
                 Renderable renderable = factory.animatedTiles.get(index);
                 if (renderable == null) {
@@ -99,10 +137,12 @@ public class TilesetFactory extends ResourceFactory<Texture, Tileset> {
                 }
 
                 if (renderable instanceof AnimatedTile) {
-                    renderable = ((AnimatedTile) renderable).clone();
-                    ((AnimatedTile) renderable).getFrames().forEach(frame -> {
-                        frame.getB().sourceObject = this;
-                    });
+                    AnimatedTile animated = ((AnimatedTile) renderable).clone();
+                    for (int i = 0; i < animated.getFrameCount(); i++) {
+                        animated.getFrame(i).sourceObject = this;
+                    }
+
+                    renderable = animated;
                 }
 
                 if (renderable instanceof Sprite) {
@@ -127,33 +167,66 @@ public class TilesetFactory extends ResourceFactory<Texture, Tileset> {
     private TilesetMeta meta;
     private File textureFile;
     private TilesetReader reader;
+    private AtlasPacker packer;
     private MultiRenderer renderer;
     private boolean reading;
+    private volatile int generation;
 
     private Array<Sprite> tiles;
-    private ObjectMap<Integer, AnimatedTile> animatedTiles;
+    private IntMap<AnimatedTile> animatedTiles;
 
     public TilesetFactory(MultiRenderer renderer, File textureFile) {
+        this(renderer, textureFile, null);
+    }
+
+    /**
+     * Creates a new {@link TilesetFactory}, packing its
+     * image using the provided {@link AtlasPacker}.
+     * 
+     * @param renderer the renderer to draw tiles with
+     * @param textureFile the tileset image
+     * @param packer the AtlasPacker to pack the tileset's
+     *        image into, or null to give the tileset its
+     *        own texture
+     */
+    public TilesetFactory(MultiRenderer renderer, File textureFile, AtlasPacker packer) {
         this.tiles = new Array<>(true, 8);
         this.reader = new TilesetReader();
-        this.animatedTiles = new ObjectMap<>();
+        this.animatedTiles = new IntMap<>();
 
         this.textureFile = textureFile;
         this.renderer = renderer;
         this.reading = false;
+        this.generation = 0;
 
         this.tsxFile = new File(textureFile.getParentFile(),
             textureFile.getName().substring(0, textureFile.getName().length() - 4) + ".tsx");
+
+        this.packer = null;
+        if (packer != null) {
+            Pixmap pixmap = new Pixmap(Gdx.files.absolute(textureFile.getAbsolutePath()));
+            if (packer.pack(this.getPackedName(), pixmap)) {
+                this.packer = packer;
+            }
+
+            pixmap.dispose();
+        }
     }
 
     // ---------------- abstract method implementation ----------------
 
     @Override
     protected CompletableFuture<Texture> loadDisposable() {
-        Wrapper<Texture> texture = new Wrapper<>();
+        Wrapper<TextureRegion> texture = new Wrapper<>();
         AssetManager.addTask(() -> {
             synchronized (texture) {
-                texture.set(new Texture(Gdx.files.absolute(this.textureFile.getAbsolutePath())));
+                if (this.packer != null) {
+                    texture.set(this.packer.getRegion(this.getPackedName()));
+                } else {
+                    texture.set(new TextureRegion(
+                        new Texture(Gdx.files.absolute(this.textureFile.getAbsolutePath()))));
+                }
+
                 texture.notifyAll();
             }
         });
@@ -181,7 +254,7 @@ public class TilesetFactory extends ResourceFactory<Texture, Tileset> {
 
                 this.loadTexture(texture.get());
 
-                return texture.get();
+                return texture.get().getTexture();
             } catch (Exception e) {
                 RuntimeException thrown = new RuntimeException();
                 thrown.initCause(e);
@@ -205,6 +278,9 @@ public class TilesetFactory extends ResourceFactory<Texture, Tileset> {
     protected void onDispose() {
         this.tiles.clear();
         this.animatedTiles.clear();
+
+        // invalidate anything built on top of our texture
+        this.generation++;
     }
 
     @Override
@@ -212,6 +288,11 @@ public class TilesetFactory extends ResourceFactory<Texture, Tileset> {
         return true;
     }
 
+    @Override
+    protected boolean isDisposableShared(Texture disposable) {
+        return this.packer != null; // atlas pages are owned by the packer
+    }
+
     @Override
     protected boolean disposeOnGameThread() {
         return true;
@@ -226,15 +307,15 @@ public class TilesetFactory extends ResourceFactory<Texture, Tileset> {
      * turning them into usable {@link Renderable} objects
      * for generated {@link Tileset}s to reference.</p>
      */
-    private void loadTexture(Texture texture) throws BadAssetException {
-        if (texture.getWidth() % meta.getTileWidth() != 0
-            || texture.getHeight() % meta.getTileHeight() != 0) {
+    private void loadTexture(TextureRegion texture) throws BadAssetException {
+        if (texture.getRegionWidth() % meta.getTileWidth() != 0
+            || texture.getRegionHeight() % meta.getTileHeight() != 0) {
             throw new BadAssetException("invalid texture size, sprites must all be "
                 + meta.getTileWidth() + "x" + meta.getTileHeight() + "px in size");
         }
 
-        int width = texture.getWidth() / meta.getTileWidth();
-        int height = texture.getHeight() / meta.getTileHeight();
+        int width = texture.getRegionWidth() / meta.getTileWidth();
+        int height = texture.getRegionHeight() / meta.getTileHeight();
 
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
@@ -258,5 +339,17 @@ public class TilesetFactory extends ResourceFactory<Texture, Tileset> {
                 this.animatedTiles.put(id, tile);
             });
         }
+
+        this.generation++;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns the name the tileset image is packed
+     * under.</p>
+     */
+    private String getPackedName() {
+        return "tileset:" + this.textureFile.getAbsolutePath();
     }
 }
@@ -36,6 +36,7 @@ import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
 
 import me.scarlet.undertailor.engine.overworld.map.TilesetFactory.Tileset;
+import me.scarlet.undertailor.gfx.AtlasPacker;
 import me.scarlet.undertailor.gfx.MultiRenderer;
 import me.scarlet.undertailor.util.FileUtil;
 
@@ -48,12 +49,14 @@ public class TilesetManager {
 
     static final Logger log = LoggerFactory.getLogger(TilesetManager.class);
 
+    private AtlasPacker packer;
     private MultiRenderer renderer;
     private ObjectMap<String, TilesetFactory> tilesets;
 
-    public TilesetManager(MultiRenderer renderer) {
+    public TilesetManager(MultiRenderer renderer, AtlasPacker packer) {
         this.tilesets = new ObjectMap<>();
         this.renderer = renderer;
+        this.packer = packer;
     }
 
     /**
@@ -87,7 +90,7 @@ public class TilesetManager {
         files.keys().forEach(key -> {
             File targetFile = files.get(key);
             try {
-                this.tilesets.put(key, new TilesetFactory(renderer, targetFile));
+                this.tilesets.put(key, new TilesetFactory(renderer, targetFile, packer));
                 log.info("Loaded tileset " + targetFile.getName() + " under key " + key);
             } catch (Exception e) {
                 String message =
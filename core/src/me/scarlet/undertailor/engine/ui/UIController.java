@@ -58,6 +58,7 @@ public class UIController
 
     static final Logger log = LoggerFactory.getLogger(UIController.class);
 
+    private boolean deferred;
     private boolean destroyed;
 
     private ObjectSet<Long> removed;
@@ -69,6 +70,7 @@ public class UIController
     private OrderedMap<Long, UIObject> bObj; // background
 
     public UIController(Environment parent, MultiRenderer renderer) {
+        this.deferred = false;
         this.destroyed = false;
         this.renderer = renderer;
         this.environment = parent;
@@ -160,8 +162,15 @@ public class UIController
     public void render(float x, float y) {
         if (!destroyed) {
             this.renderer.setProjectionMatrix(this.camera.combined);
+            if (this.deferred) {
+                this.renderer.beginDeferred();
+            }
+
             this.bObj.values().forEach(UIObject::render);
             this.aObj.values().forEach(UIObject::render);
+            if (this.deferred) {
+                this.renderer.endDeferred();
+            }
         }
     }
 
@@ -175,6 +184,52 @@ public class UIController
         this.destroyed = true;
     }
 
+    // ---------------- rendering ----------------
+
+    /**
+     * Returns whether or not this {@link UIController}
+     * defers the drawing of its {@link UIObject}s.
+     * 
+     * @return if this UIController renders deferred
+     * 
+     * @see MultiRenderer#beginDeferred()
+     */
+    public boolean isDeferredRendering() {
+        return this.deferred;
+    }
+
+    /**
+     * Sets whether or not this {@link UIController} defers
+     * the drawing of its {@link UIObject}s.
+     * 
+     * <p>When deferred, draws of all components sharing a
+     * texture are grouped wherever they don't overlap draws
+     * of other textures. Draws overlapping each other keep
+     * their order. Sub-layers set explicitly by a
+     * {@link UIComponent} only last until the next
+     * component is rendered.</p>
+     * 
+     * @param deferred if this UIController should render
+     *        deferred
+     * 
+     * @see MultiRenderer#beginDeferred()
+     * @see MultiRenderer#setDeferredSubLayer(int)
+     */
+    public void setDeferredRendering(boolean deferred) {
+        this.deferred = deferred;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns deferred draws to automatic sub-layer
+     * selection, called before rendering each
+     * {@link UIComponent}.</p>
+     */
+    void resetDeferredSubLayer() {
+        this.renderer.setDeferredSubLayer(-1);
+    }
+
     // ---------------- object ----------------
 
     /**
@@ -182,6 +182,10 @@ public class UIObject implements Identifiable, Processable, Renderable, EventLis
         }
 
         this.components.forEach(comp -> {
+            if (this.parent != null) {
+                this.parent.resetDeferredSubLayer();
+            }
+
             comp.render(comp.getScreenPosition());
         });
     }
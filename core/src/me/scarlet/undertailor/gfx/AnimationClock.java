@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Tellerva, Marc Lawrence
+ *
+ * Permission is hereby granted, free of charge, to any
+ * person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the
+ * Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge,
+ * publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice
+ * shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package me.scarlet.undertailor.gfx;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Engine-wide clock used to drive animations.
+ * 
+ * <p>The clock is sampled once at the start of every frame,
+ * ensuring that every animation rendered within a single
+ * frame agrees on the current time. The frame counter
+ * allows animations to resolve their state once per frame
+ * no matter how many times they are drawn.</p>
+ */
+public class AnimationClock {
+
+    private static long origin;
+    private static long time;
+    private static long frame;
+
+    static {
+        origin = TimeUtils.millis();
+        time = 0;
+        frame = 0;
+    }
+
+    /**
+     * Samples the clock for the current frame.
+     * 
+     * <p>Should only be called by the game loop, once per
+     * frame.</p>
+     */
+    public static void update() {
+        time = TimeUtils.timeSinceMillis(origin);
+        frame++;
+    }
+
+    /**
+     * Returns the time, in milliseconds, since the clock
+     * was started, as sampled at the start of the current
+     * frame.
+     * 
+     * @return the current animation time
+     */
+    public static long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the count of frames sampled by the clock.
+     * 
+     * @return the current frame number
+     */
+    public static long getFrame() {
+        return frame;
+    }
+}
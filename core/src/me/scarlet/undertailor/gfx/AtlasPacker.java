@@ -0,0 +1,184 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Tellerva, Marc Lawrence
+ *
+ * Permission is hereby granted, free of charge, to any
+ * person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the
+ * Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge,
+ * publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice
+ * shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package me.scarlet.undertailor.gfx;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker.Page;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Packs the images of multiple assets into a small number
+ * of shared texture pages.
+ * 
+ * <p>Assets packed by an AtlasPacker have their
+ * {@link TextureRegion}s point into the shared pages
+ * instead of owning a texture of their own, allowing
+ * sprites, tiles and font glyphs to be drawn without
+ * swapping textures in between.</p>
+ * 
+ * <p>Packing is intended to be done while loading assets.
+ * The pages are owned by the packer and are kept for the
+ * lifetime of the game; the assets using them must
+ * therefore never dispose of them.</p>
+ */
+public class AtlasPacker {
+
+    static final Logger log = LoggerFactory.getLogger(AtlasPacker.class);
+
+    /**
+     * The width and height of a single atlas page.
+     */
+    public static final int PAGE_SIZE = 2048;
+
+    /**
+     * The name the white region is packed under.
+     */
+    static final String WHITE_REGION = "#white";
+
+    private PixmapPacker packer;
+
+    public AtlasPacker() {
+        this.packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Format.RGBA8888, 2, false);
+    }
+
+    /**
+     * Packs the provided {@link Pixmap} under the given
+     * name.
+     * 
+     * <p>The packer copies the image data; the provided
+     * Pixmap can be disposed of afterwards.</p>
+     * 
+     * @param name the name to pack the image under
+     * @param pixmap the image to pack
+     * 
+     * @return whether or not the image was packed; images
+     *         too large to fit in a page are not
+     */
+    public boolean pack(String name, Pixmap pixmap) {
+        if (pixmap.getWidth() > PAGE_SIZE || pixmap.getHeight() > PAGE_SIZE) {
+            log.warn("Image " + name + " is too large to be packed (" + pixmap.getWidth() + "x"
+                + pixmap.getHeight() + "); it will keep its own texture");
+            return false;
+        }
+
+        try {
+            this.packer.pack(name, pixmap);
+            return true;
+        } catch (GdxRuntimeException e) {
+            log.warn("Failed to pack image " + name + "; it will keep its own texture", e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns a {@link TextureRegion} of plain, opaque
+     * white, packed into the shared pages.
+     * 
+     * <p>Used to draw shapes alongside packed sprites
+     * without swapping textures. The region is packed on
+     * the first call, and must therefore be retrieved on
+     * the game thread.</p>
+     * 
+     * @return a white region, or null if it could not be
+     *         packed
+     */
+    public TextureRegion getWhiteRegion() {
+        if (!this.isPacked(WHITE_REGION)) {
+            Pixmap pixmap = new Pixmap(4, 4, Format.RGBA8888);
+            pixmap.setColor(Color.WHITE);
+            pixmap.fill();
+            boolean packed = this.pack(WHITE_REGION, pixmap);
+            pixmap.dispose();
+
+            if (!packed) {
+                return null;
+            }
+        }
+
+        return this.getRegion(WHITE_REGION);
+    }
+
+    /**
+     * Returns whether or not an image was packed under the
+     * given name.
+     * 
+     * @param name the name of the image
+     * 
+     * @return if the image was packed
+     */
+    public boolean isPacked(String name) {
+        return this.packer.getRect(name) != null;
+    }
+
+    /**
+     * Returns a {@link TextureRegion} covering the image
+     * packed under the given name.
+     * 
+     * <p>Uploads any pages with pending changes, and must
+     * therefore be called on the game thread.</p>
+     * 
+     * @param name the name of the image
+     * 
+     * @return the region of the packed image, or null if
+     *         no image was packed under the name
+     */
+    public TextureRegion getRegion(String name) {
+        synchronized (this.packer) {
+            Rectangle rect = this.packer.getRect(name);
+            if (rect == null) {
+                return null;
+            }
+
+            this.packer.updatePageTextures(TextureFilter.Nearest, TextureFilter.Nearest, false);
+            Page page = this.packer.getPage(name);
+            return new TextureRegion(page.getTexture(), (int) rect.x, (int) rect.y,
+                (int) rect.width, (int) rect.height);
+        }
+    }
+
+    /**
+     * Returns the count of pages generated by this
+     * {@link AtlasPacker}.
+     * 
+     * @return the page count
+     */
+    public int getPageCount() {
+        return this.packer.getPages().size;
+    }
+}
@@ -33,13 +33,20 @@ package me.scarlet.undertailor.gfx;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import com.badlogic.gdx.math.EarClippingTriangulator;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.ShortArray;
+
+import me.scarlet.undertailor.gfx.RenderStats.Stat;
 
 /**
  * Implementation of a global renderer to be used by the
@@ -51,9 +58,33 @@ public class MultiRenderer {
     private SpriteBatch batch;
     private ShapeRenderer renderer;
 
+    private RenderStats stats;
+    private Texture lastTexture;
+    private int lastRenderCalls;
+
+    private boolean spritePrimitives;
+    private TextureRegion primitiveRegion;
+    private float[] primitiveVertices;
+    private EarClippingTriangulator triangulator;
+
+    private RenderQueue queue;
+    private int deferDepth;
+    private int deferredLayer;
+    private int deferredSubLayer;
+
     public MultiRenderer() {
         this.batch = new SpriteBatch();
         this.renderer = new ShapeRenderer();
+        this.stats = new RenderStats();
+        this.lastTexture = null;
+        this.lastRenderCalls = 0;
+        this.spritePrimitives = false;
+        this.primitiveRegion = null;
+        this.primitiveVertices = new float[20];
+        this.triangulator = new EarClippingTriangulator();
+        this.queue = new RenderQueue();
+        this.deferDepth = 0;
+        this.setDeferredLayer(0);
         this.setClearColor(Color.BLACK);
     }
 
@@ -133,19 +164,51 @@ public class MultiRenderer {
 
     /**
      * Ensures that the current drawings are flushed.
+     * 
+     * <p>Deferred draws are drawn first, though deferring
+     * remains active if it was.</p>
      */
     public void flush() {
+        this.replayQueue();
         if (batch.isDrawing()) {
             batch.end();
         }
 
         if (renderer.isDrawing()) {
             renderer.end();
+            stats.increment(Stat.FLUSHES);
         }
 
         this.resetColors();
     }
 
+    /**
+     * Marks the end of the current frame, committing the
+     * {@link RenderStats} recorded during the frame.
+     * 
+     * <p>Should be called once per frame, after the final
+     * {@link #flush()}.</p>
+     */
+    public void endFrame() {
+        // the batch counts its own flushes, including those
+        // forced by texture switches or a full buffer
+        stats.add(Stat.FLUSHES, batch.totalRenderCalls - this.lastRenderCalls);
+        this.lastRenderCalls = batch.totalRenderCalls;
+        this.lastTexture = null;
+        this.deferDepth = 0; // deferring never carries over to the next frame
+        stats.endFrame();
+    }
+
+    /**
+     * Returns the {@link RenderStats} recorded by this
+     * {@link MultiRenderer}.
+     * 
+     * @return this renderer's RenderStats
+     */
+    public RenderStats getStats() {
+        return this.stats;
+    }
+
     /**
      * Resets the colors to their default.
      */
@@ -163,6 +226,240 @@ public class MultiRenderer {
         }
     }
 
+    /**
+     * Returns whether or not shapes are drawn through the
+     * underlying {@link SpriteBatch}.
+     * 
+     * @return if sprite primitives are enabled
+     * 
+     * @see #setSpritePrimitives(boolean)
+     */
+    public boolean isSpritePrimitives() {
+        return this.spritePrimitives;
+    }
+
+    /**
+     * Sets whether or not shapes are drawn through the
+     * underlying {@link SpriteBatch}.
+     * 
+     * <p>When enabled, shapes are drawn as quads textured
+     * with a single white texel and tinted with the shape
+     * color, instead of being handed to the
+     * {@link ShapeRenderer}. Shapes and sprites can then be
+     * mixed without ending one renderer to begin the other.
+     * Shapes drawn this way use the matrices of the
+     * SpriteBatch rather than those of the
+     * ShapeRenderer.</p>
+     * 
+     * @param flag whether or not to draw shapes as sprites
+     */
+    public void setSpritePrimitives(boolean flag) {
+        this.spritePrimitives = flag;
+    }
+
+    /**
+     * Sets the {@link TextureRegion} used to draw shapes
+     * through the underlying {@link SpriteBatch}.
+     * 
+     * <p>The region should be fully white and opaque. Only
+     * its center is sampled, so a region packed alongside
+     * other images will not bleed into them. If unset, a
+     * 1x1 white texture is created on demand.</p>
+     * 
+     * @param region the white region to draw shapes with
+     */
+    public void setPrimitiveRegion(TextureRegion region) {
+        this.primitiveRegion = region;
+    }
+
+    // ---------------- deferred rendering methods ----------------
+
+    /**
+     * Starts deferring sprite draws.
+     * 
+     * <p>While deferring, sprite draws are recorded instead
+     * of being drawn immediately, and are only drawn once
+     * deferring ends or the renderer is flushed. Recorded
+     * draws are then sorted by their layer, sub-layer,
+     * shader, texture and blending, so draws of the same
+     * sub-layer sharing a texture are drawn together
+     * regardless of the order they were made in. Draws of
+     * different layers and sub-layers are always drawn in
+     * order.</p>
+     * 
+     * <p>By default, sub-layers are selected automatically,
+     * placing each draw above only the earlier draws of its
+     * layer it overlaps with and that use another texture,
+     * shader or blending. Draws sharing a texture are thus
+     * grouped across a whole layer wherever they don't
+     * overlap other draws.</p>
+     * 
+     * <p>Shape drawing through the {@link ShapeRenderer}
+     * and matrix changes cannot be deferred; they draw all
+     * currently recorded draws before taking effect.</p>
+     * 
+     * <p>Calls may be nested; only the outermost pair of
+     * calls starts and ends deferring. The layer is reset
+     * to 0 when deferring starts.</p>
+     */
+    public void beginDeferred() {
+        if (this.deferDepth++ == 0) {
+            this.setDeferredLayer(0);
+        }
+    }
+
+    /**
+     * Stops deferring sprite draws, drawing all recorded
+     * draws.
+     * 
+     * @see #beginDeferred()
+     */
+    public void endDeferred() {
+        if (this.deferDepth <= 0) {
+            return;
+        }
+
+        if (--this.deferDepth == 0) {
+            this.replayQueue();
+        }
+    }
+
+    /**
+     * Returns whether or not sprite draws are currently
+     * being deferred.
+     * 
+     * @return if draws are deferred
+     */
+    public boolean isDeferred() {
+        return this.deferDepth > 0;
+    }
+
+    /**
+     * Returns the layer deferred draws are currently
+     * recorded under.
+     * 
+     * @return the current deferred layer
+     */
+    public int getDeferredLayer() {
+        return this.deferredLayer;
+    }
+
+    /**
+     * Sets the layer deferred draws are recorded under.
+     * 
+     * <p>Draws of lower layers are drawn before those of
+     * higher layers, regardless of overlap; draws are only
+     * grouped by texture within a layer. Setting the layer
+     * returns the sub-layer to automatic selection.</p>
+     * 
+     * @param layer the new deferred layer
+     * 
+     * @see #setDeferredSubLayer(int)
+     */
+    public void setDeferredLayer(int layer) {
+        this.deferredLayer = layer;
+        this.setDeferredSubLayer(-1);
+    }
+
+    /**
+     * Returns the sub-layer deferred draws are currently
+     * recorded under, within the current layer.
+     * 
+     * @return the current deferred sub-layer, or -1 if
+     *         selected automatically
+     */
+    public int getDeferredSubLayer() {
+        return this.deferredSubLayer;
+    }
+
+    /**
+     * Sets the sub-layer deferred draws are recorded under,
+     * within the current layer.
+     * 
+     * <p>Draws sharing a sub-layer may be reordered amongst
+     * themselves to be grouped by texture, and should
+     * therefore not rely on overlapping each other in
+     * order. Draws of lower sub-layers are drawn first.
+     * Sub-layers range from 0 to 1023.</p>
+     * 
+     * <p>By default, or when given a negative value, the
+     * sub-layer of each draw is selected automatically from
+     * the earlier draws of the layer it overlaps, so draws
+     * made in order over each other stay in order. Callers
+     * relying on order between draws that do not overlap,
+     * such as ones using a shader sampling what is below,
+     * should set sub-layers explicitly.</p>
+     * 
+     * @param subLayer the new deferred sub-layer, or a
+     *        negative value for automatic selection
+     * 
+     * @throws IllegalArgumentException if the sub-layer is
+     *         above 1023
+     */
+    public void setDeferredSubLayer(int subLayer) {
+        if (subLayer > RenderQueue.MAX_SUBLAYER) {
+            throw new IllegalArgumentException(
+                "Sub-layer " + subLayer + " is above " + RenderQueue.MAX_SUBLAYER);
+        }
+
+        this.deferredSubLayer = subLayer < 0 ? RenderQueue.AUTO_SUBLAYER : subLayer;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Makes sure the deferred draw queue can take
+     * another draw, drawing its current contents if it
+     * cannot.</p>
+     */
+    private void prepareQueue() {
+        stats.increment(Stat.DRAW_CALLS);
+        if (queue.isFull()) {
+            this.replayQueue();
+        }
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Sorts and draws all deferred draws, restoring the
+     * state of the {@link SpriteBatch} afterwards.</p>
+     */
+    private void replayQueue() {
+        int size = queue.size();
+        if (size <= 0) {
+            return;
+        }
+
+        queue.sort();
+        ShaderProgram shader = batch.getShader();
+        boolean blending = batch.isBlendingEnabled();
+        float[] vertices = queue.getVertices();
+
+        this.beginBatch();
+        for (int i = 0; i < size; i++) {
+            int command = queue.getCommand(i);
+            ShaderProgram commandShader = queue.getShader(command);
+            if (commandShader != null && batch.getShader() != commandShader) {
+                batch.setShader(commandShader);
+                stats.increment(Stat.SHADER_SWITCHES);
+            }
+
+            this.setBatchBlending(queue.isBlending(command));
+            Texture texture = queue.getTexture(command);
+            this.trackTexture(texture);
+            batch.draw(texture, vertices, command * RenderQueue.SPRITE_SIZE,
+                RenderQueue.SPRITE_SIZE);
+        }
+
+        if (batch.getShader() != shader) {
+            batch.setShader(shader);
+        }
+
+        this.setBatchBlending(blending);
+        queue.clear();
+    }
+
     // ---------------- spritebatch methods ----------------
 
     /**
@@ -174,8 +471,21 @@ public class MultiRenderer {
      * drawings.</p>
      */
     private void startDrawingSprite() {
+        stats.increment(Stat.DRAW_CALLS);
+        this.beginBatch();
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Stops the underlying {@link ShapeRenderer} and
+     * begins the {@link SpriteBatch}, if needed.</p>
+     */
+    private void beginBatch() {
         if (renderer.isDrawing()) {
             renderer.end();
+            stats.increment(Stat.FLUSHES);
+            stats.increment(Stat.MODE_SWITCHES);
         }
 
         if (!batch.isDrawing()) {
@@ -184,6 +494,23 @@ public class MultiRenderer {
         }
     }
 
+    /**
+     * Internal method.
+     * 
+     * <p>Records the texture about to be drawn with,
+     * counting it as a texture switch if it differs from
+     * the last one drawn.</p>
+     */
+    private void trackTexture(Texture texture) {
+        if (this.lastTexture != texture) {
+            if (this.lastTexture != null) {
+                stats.increment(Stat.TEXTURE_SWITCHES);
+            }
+
+            this.lastTexture = texture;
+        }
+    }
+
     /**
      * Returns the projection matrix of the underlying
      * {@link SpriteBatch}.
@@ -202,6 +529,8 @@ public class MultiRenderer {
      *        SpriteBatch
      */
     public void setBatchProjectionMatrix(Matrix4 matrix) {
+        this.replayQueue();
+        stats.increment(Stat.MATRIX_CHANGES);
         batch.setProjectionMatrix(matrix);
     }
 
@@ -223,6 +552,8 @@ public class MultiRenderer {
      *        SpriteBatch
      */
     public void setBatchTransformMatrix(Matrix4 matrix) {
+        this.replayQueue();
+        stats.increment(Stat.MATRIX_CHANGES);
         batch.setTransformMatrix(matrix);
     }
 
@@ -274,6 +605,10 @@ public class MultiRenderer {
      * @param color the color to use
      */
     public void setBatchColor(Color color) {
+        if (!batch.getColor().equals(color)) {
+            stats.increment(Stat.COLOR_CHANGES);
+        }
+
         batch.setColor(color);
     }
 
@@ -286,6 +621,7 @@ public class MultiRenderer {
      */
     public void setBatchColor(Color color, float alpha) {
         if(!batch.getColor().equals(color)) {
+            stats.increment(Stat.COLOR_CHANGES);
             color.a = alpha;
             batch.setColor(color);
         }
@@ -309,6 +645,10 @@ public class MultiRenderer {
      *        null to clear
      */
     public void setBatchShader(ShaderProgram shader) {
+        if (!this.isDeferred() && batch.getShader() != shader) {
+            stats.increment(Stat.SHADER_SWITCHES);
+        }
+
         batch.setShader(shader);
     }
 
@@ -322,7 +662,15 @@ public class MultiRenderer {
      * @param y the y position
      */
     public void draw(Texture texture, float x, float y) {
+        if (this.isDeferred()) {
+            this.prepareQueue();
+            queue.addTexture(this.deferredLayer, this.deferredSubLayer, texture,
+                batch.getShader(), batch.isBlendingEnabled(), x, y, batch.getPackedColor());
+            return;
+        }
+
         this.startDrawingSprite();
+        this.trackTexture(texture);
         batch.draw(texture, x, y);
     }
 
@@ -380,13 +728,49 @@ public class MultiRenderer {
      */
     public void draw(TextureRegion region, float x, float y, float scaleX, float scaleY,
         float originX, float originY, float rotation) {
-        this.startDrawingSprite();
         float mOriginX = originX * scaleX;
         float mOriginY = originY * scaleY;
+        if (this.isDeferred()) {
+            this.prepareQueue();
+            queue.addRegion(this.deferredLayer, this.deferredSubLayer, region,
+                batch.getShader(), batch.isBlendingEnabled(), x - mOriginX, y - mOriginY,
+                mOriginX, mOriginY, region.getRegionWidth() * scaleX,
+                region.getRegionHeight() * scaleY, 1F, 1F, rotation, batch.getPackedColor());
+            return;
+        }
+
+        this.startDrawingSprite();
+        this.trackTexture(region.getTexture());
         batch.draw(region, x - mOriginX, y - mOriginY, mOriginX, mOriginY,
             region.getRegionWidth() * scaleX, region.getRegionHeight() * scaleY, 1F, 1F, rotation);
     }
 
+    /**
+     * Draws a set of pre-computed sprite vertices using the
+     * underlying {@link SpriteBatch}.
+     * 
+     * <p>Vertices are expected to be in the format used by
+     * SpriteBatch, 20 floats per sprite.</p>
+     * 
+     * @see SpriteBatch#draw(Texture, float[], int, int)
+     */
+    public void draw(Texture texture, float[] vertices, int offset, int count) {
+        if (this.isDeferred()) {
+            for (int i = offset; i + RenderQueue.SPRITE_SIZE <= offset + count;
+                i += RenderQueue.SPRITE_SIZE) {
+                this.prepareQueue();
+                queue.add(this.deferredLayer, this.deferredSubLayer, texture,
+                    batch.getShader(), batch.isBlendingEnabled(), vertices, i);
+            }
+
+            return;
+        }
+
+        this.startDrawingSprite();
+        this.trackTexture(texture);
+        batch.draw(texture, vertices, offset, count);
+    }
+
     // ---------------- renderer methods ----------------
 
     /**
@@ -397,8 +781,11 @@ public class MultiRenderer {
      * prepared to take shape drawings.</p>
      */
     private void startDrawingShape() {
+        this.replayQueue();
+        stats.increment(Stat.DRAW_CALLS);
         if (batch.isDrawing()) {
             batch.end();
+            stats.increment(Stat.MODE_SWITCHES);
         }
 
         if (!renderer.isDrawing()) {
@@ -408,6 +795,20 @@ public class MultiRenderer {
         }
     }
 
+    /**
+     * Internal method.
+     * 
+     * <p>Sets the type of shape drawn by the underlying
+     * {@link ShapeRenderer}. Changing the type flushes the
+     * current shapes.</p>
+     */
+    private void setShapeType(ShapeType type) {
+        if (renderer.getCurrentType() != type) {
+            renderer.set(type);
+            stats.increment(Stat.FLUSHES);
+        }
+    }
+
     /**
      * Returns the projection matrix of the underlying
      * {@link ShapeRenderer}.
@@ -425,6 +826,8 @@ public class MultiRenderer {
      * @param matrix the new projection matrix
      */
     public void setShapeProjectionMatrix(Matrix4 matrix) {
+        this.replayQueue();
+        stats.increment(Stat.MATRIX_CHANGES);
         renderer.setProjectionMatrix(matrix);
     }
 
@@ -445,6 +848,8 @@ public class MultiRenderer {
      * @param matrix the new transform matrix
      */
     public void setShapeTransformMatrix(Matrix4 matrix) {
+        this.replayQueue();
+        stats.increment(Stat.MATRIX_CHANGES);
         renderer.setTransformMatrix(matrix);
     }
 
@@ -466,6 +871,7 @@ public class MultiRenderer {
      */
     public void setShapeColor(Color color) {
         if(!renderer.getColor().equals(color)) {
+            stats.increment(Stat.COLOR_CHANGES);
             renderer.setColor(color);
         }
     }
@@ -479,6 +885,10 @@ public class MultiRenderer {
      */
     public void setShapeColor(Color color, float alpha) {
         color.a = alpha;
+        if (!renderer.getColor().equals(color)) {
+            stats.increment(Stat.COLOR_CHANGES);
+        }
+
         renderer.setColor(color);
     }
 
@@ -499,11 +909,15 @@ public class MultiRenderer {
      * @param thickness the thickness of the line
      */
     public void drawLine(float x1, float y1, float x2, float y2, float thickness) {
-        this.startDrawingShape();
-        if (renderer.getCurrentType() != ShapeType.Filled) {
-            renderer.set(ShapeType.Filled);
+        if (this.spritePrimitives) {
+            this.startDrawingPrimitive();
+            this.emitLine(x1, y1, x2, y2, thickness);
+            return;
         }
 
+        this.startDrawingShape();
+        this.setShapeType(ShapeType.Filled);
+
         renderer.rectLine(x1, y1, x2, y2, thickness);
     }
 
@@ -521,11 +935,14 @@ public class MultiRenderer {
      * @param degrees the length of the arc, in degrees
      */
     public void drawArc(float x, float y, float radius, float start, float degrees) {
-        this.startDrawingShape();
-        if (renderer.getCurrentType() != ShapeType.Line) {
-            renderer.set(ShapeType.Line);
+        if (this.spritePrimitives) {
+            this.drawArc(x, y, radius, start, degrees, getArcSegments(radius, degrees));
+            return;
         }
 
+        this.startDrawingShape();
+        this.setShapeType(ShapeType.Line);
+
         renderer.arc(x, y, radius, start, degrees);
     }
 
@@ -546,11 +963,15 @@ public class MultiRenderer {
      *        arc; the "smoothness"
      */
     public void drawArc(float x, float y, float radius, float start, float degrees, int segments) {
-        this.startDrawingShape();
-        if (renderer.getCurrentType() != ShapeType.Line) {
-            renderer.set(ShapeType.Line);
+        if (this.spritePrimitives) {
+            this.startDrawingPrimitive();
+            this.emitArc(x, y, radius, start, degrees, segments, false);
+            return;
         }
 
+        this.startDrawingShape();
+        this.setShapeType(ShapeType.Line);
+
         renderer.arc(x, y, radius, start, degrees, segments);
     }
 
@@ -568,11 +989,14 @@ public class MultiRenderer {
      * @param degrees the length of the arc, in degrees
      */
     public void drawFilledArc(float x, float y, float radius, float start, float degrees) {
-        this.startDrawingShape();
-        if (renderer.getCurrentType() != ShapeType.Filled) {
-            renderer.set(ShapeType.Filled);
+        if (this.spritePrimitives) {
+            this.drawFilledArc(x, y, radius, start, degrees, getArcSegments(radius, degrees));
+            return;
         }
 
+        this.startDrawingShape();
+        this.setShapeType(ShapeType.Filled);
+
         renderer.arc(x, y, radius, start, degrees);
     }
 
@@ -593,17 +1017,24 @@ public class MultiRenderer {
      *        arc; the "smoothness"
      */
     public void drawFilledArc(float x, float y, float radius, float start, float degrees, int segments) {
-        this.startDrawingShape();
-        if (renderer.getCurrentType() != ShapeType.Filled) {
-            renderer.set(ShapeType.Filled);
+        if (this.spritePrimitives) {
+            this.startDrawingPrimitive();
+            this.emitArc(x, y, radius, start, degrees, segments, true);
+            return;
         }
 
+        this.startDrawingShape();
+        this.setShapeType(ShapeType.Filled);
+
         renderer.arc(x, y, radius, start, degrees, segments);
     }
 
     /**
      * Draws a filled polygon.
      * 
+     * <p>In sprite primitive mode, the polygon may be
+     * concave, but must not intersect itself.</p>
+     * 
      * @param points the vertices of the polygon
      */
     public void drawFilledPolygon(float... points) {
@@ -611,11 +1042,23 @@ public class MultiRenderer {
             return;
         }
 
-        this.startDrawingShape();
-        if (renderer.getCurrentType() != ShapeType.Filled) {
-            renderer.set(ShapeType.Filled);
+        if (this.spritePrimitives) {
+            this.startDrawingPrimitive();
+            ShortArray triangles = this.triangulator.computeTriangles(points);
+            for (int i = 0; i + 2 < triangles.size; i += 3) {
+                int a = triangles.get(i) * 2;
+                int b = triangles.get(i + 1) * 2;
+                int c = triangles.get(i + 2) * 2;
+                this.emitTriangle(points[a], points[a + 1], points[b], points[b + 1], points[c],
+                    points[c + 1]);
+            }
+
+            return;
         }
 
+        this.startDrawingShape();
+        this.setShapeType(ShapeType.Filled);
+
         this.renderer.polygon(points);
     }
 
@@ -663,23 +1106,40 @@ public class MultiRenderer {
             throw new IllegalArgumentException("uneven point");
         }
 
-        this.startDrawingShape();
-        if (renderer.getCurrentType() != ShapeType.Filled) {
-            renderer.set(ShapeType.Filled);
+        if (this.spritePrimitives) {
+            this.startDrawingPrimitive();
+        } else {
+            this.startDrawingShape();
+            this.setShapeType(ShapeType.Filled);
         }
 
         for (int i = 2; i < points.length; i++) {
             if (i % 2 == 0) {
-                this.drawLine(points[i - 2], points[i - 1], points[i], points[i + 1],
+                this.drawEdge(points[i - 2], points[i - 1], points[i], points[i + 1],
                     lineThickness);
             }
         }
 
         if (close)
-            this.drawLine(points[points.length - 2], points[points.length - 1], points[0],
+            this.drawEdge(points[points.length - 2], points[points.length - 1], points[0],
                 points[1], lineThickness);
     }
 
+    /**
+     * Internal method.
+     * 
+     * <p>Draws a single edge of a polygon outline, without
+     * preparing the renderers again or counting the edge
+     * as a draw call of its own.</p>
+     */
+    private void drawEdge(float x1, float y1, float x2, float y2, float thickness) {
+        if (this.spritePrimitives) {
+            this.emitLine(x1, y1, x2, y2, thickness);
+        } else {
+            renderer.rectLine(x1, y1, x2, y2, thickness);
+        }
+    }
+
     /**
      * Draws a rectangular outline anchored at the given
      * point with a specified width, height and edge
@@ -698,11 +1158,6 @@ public class MultiRenderer {
      *        edges
      */
     public void drawRectangle(float x, float y, float width, float height, float lineThickness) {
-        this.startDrawingShape();
-        if (renderer.getCurrentType() != ShapeType.Filled) {
-            renderer.set(ShapeType.Filled);
-        }
-
         this.drawPolygon(lineThickness, x, y, x + width, y, x + width, y + height, x, y + height);
         /*
          * this.drawLine(tL, tR, lineThickness);
@@ -724,11 +1179,15 @@ public class MultiRenderer {
      * @param height the height of the rectangle
      */
     public void drawFilledRectangle(float x, float y, float width, float height) {
-        this.startDrawingShape();
-        if (renderer.getCurrentType() != ShapeType.Filled) {
-            renderer.set(ShapeType.Filled);
+        if (this.spritePrimitives) {
+            this.startDrawingPrimitive();
+            this.emitQuad(x, y, x, y + height, x + width, y + height, x + width, y);
+            return;
         }
 
+        this.startDrawingShape();
+        this.setShapeType(ShapeType.Filled);
+
         renderer.rect(x, y, width, height);
     }
 
@@ -741,11 +1200,15 @@ public class MultiRenderer {
      * @param radius the radius of the circle
      */
     public void drawCircle(float x, float y, float radius) {
-        this.startDrawingShape();
-        if (renderer.getCurrentType() != ShapeType.Line) {
-            renderer.set(ShapeType.Line);
+        if (this.spritePrimitives) {
+            this.startDrawingPrimitive();
+            this.emitCircle(x, y, radius, false);
+            return;
         }
 
+        this.startDrawingShape();
+        this.setShapeType(ShapeType.Line);
+
         renderer.circle(x, y, radius);
     }
 
@@ -758,11 +1221,15 @@ public class MultiRenderer {
      * @param radius the radius of the circle
      */
     public void drawFilledCircle(float x, float y, float radius) {
-        this.startDrawingShape();
-        if (renderer.getCurrentType() != ShapeType.Filled) {
-            renderer.set(ShapeType.Filled);
+        if (this.spritePrimitives) {
+            this.startDrawingPrimitive();
+            this.emitCircle(x, y, radius, true);
+            return;
         }
 
+        this.startDrawingShape();
+        this.setShapeType(ShapeType.Filled);
+
         renderer.circle(x, y, radius);
     }
 
@@ -787,11 +1254,6 @@ public class MultiRenderer {
      */
     public void drawTriangle(float x1, float y1, float x2, float y2, float x3, float y3,
         float lineThickness) {
-        this.startDrawingShape();
-        if (renderer.getCurrentType() != ShapeType.Filled) {
-            renderer.set(ShapeType.Filled);
-        }
-
         /*
          * this.drawLine(vx1, vx2, lineThickness);
          * this.drawLine(vx2, vx3, lineThickness);
@@ -817,11 +1279,194 @@ public class MultiRenderer {
      *        triangle
      */
     public void drawFilledTriangle(float x1, float y1, float x2, float y2, float x3, float y3) {
-        this.startDrawingShape();
-        if (renderer.getCurrentType() != ShapeType.Filled) {
-            renderer.set(ShapeType.Filled);
+        if (this.spritePrimitives) {
+            this.startDrawingPrimitive();
+            this.emitTriangle(x1, y1, x2, y2, x3, y3);
+            return;
         }
 
+        this.startDrawingShape();
+        this.setShapeType(ShapeType.Filled);
+
         renderer.triangle(x1, y1, x2, y2, x3, y3);
     }
+
+    // ---------------- sprite primitive methods ----------------
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns the count of segments the
+     * {@link ShapeRenderer} would use for an arc of the
+     * given size.</p>
+     */
+    private static int getArcSegments(float radius, float degrees) {
+        return Math.max(1, (int) (6 * (float) Math.cbrt(radius) * (degrees / 360.0F)));
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Prepares the underlying {@link SpriteBatch} to
+     * take shapes drawn as sprites.</p>
+     */
+    private void startDrawingPrimitive() {
+        if (this.primitiveRegion == null) {
+            Pixmap pixmap = new Pixmap(1, 1, Format.RGBA8888);
+            pixmap.setColor(Color.WHITE);
+            pixmap.fill();
+            this.primitiveRegion = new TextureRegion(new Texture(pixmap));
+            pixmap.dispose();
+        }
+
+        if (this.isDeferred()) {
+            stats.increment(Stat.DRAW_CALLS);
+        } else {
+            this.startDrawingSprite();
+            this.trackTexture(this.primitiveRegion.getTexture());
+        }
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Emits a quad with the provided corners, in
+     * clockwise or counter-clockwise order, tinted with the
+     * current shape color.</p>
+     */
+    private void emitQuad(float x1, float y1, float x2, float y2, float x3, float y3, float x4,
+        float y4) {
+        TextureRegion region = this.primitiveRegion;
+        float u = (region.getU() + region.getU2()) / 2F;
+        float v = (region.getV() + region.getV2()) / 2F;
+        float color = renderer.getColor().toFloatBits();
+
+        float[] vertices = this.primitiveVertices;
+        vertices[0] = x1;
+        vertices[1] = y1;
+        vertices[5] = x2;
+        vertices[6] = y2;
+        vertices[10] = x3;
+        vertices[11] = y3;
+        vertices[15] = x4;
+        vertices[16] = y4;
+        for (int i = 0; i < 20; i += 5) {
+            vertices[i + 2] = color;
+            vertices[i + 3] = u;
+            vertices[i + 4] = v;
+        }
+
+        if (this.isDeferred()) {
+            if (queue.isFull()) {
+                this.replayQueue();
+            }
+
+            queue.add(this.deferredLayer, this.deferredSubLayer,
+                region.getTexture(), batch.getShader(), batch.isBlendingEnabled(), vertices, 0);
+        } else {
+            batch.draw(region.getTexture(), vertices, 0, 20);
+        }
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Emits a triangle as a quad with its last two
+     * corners collapsed.</p>
+     */
+    private void emitTriangle(float x1, float y1, float x2, float y2, float x3, float y3) {
+        this.emitQuad(x1, y1, x2, y2, x3, y3, x3, y3);
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Emits a line as a quad rotated along the line's
+     * direction.</p>
+     */
+    private void emitLine(float x1, float y1, float x2, float y2, float thickness) {
+        float tx = y2 - y1;
+        float ty = x1 - x2;
+        float length = (float) Math.sqrt(tx * tx + ty * ty);
+        if (length == 0) {
+            return;
+        }
+
+        float scale = (thickness / 2F) / length;
+        tx *= scale;
+        ty *= scale;
+        this.emitQuad(x1 + tx, y1 + ty, x1 - tx, y1 - ty, x2 - tx, y2 - ty, x2 + tx, y2 + ty);
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Emits an arc in the same manner as the
+     * {@link ShapeRenderer}; filled arcs as a fan of
+     * triangles around the center, outlined arcs as lines
+     * along the edge and back to the center.</p>
+     */
+    private void emitArc(float x, float y, float radius, float start, float degrees, int segments,
+        boolean filled) {
+        if (segments <= 0) {
+            return;
+        }
+
+        float theta = (2 * MathUtils.PI * (degrees / 360.0F)) / segments;
+        float cos = MathUtils.cos(theta);
+        float sin = MathUtils.sin(theta);
+        float cx = radius * MathUtils.cos(start * MathUtils.degreesToRadians);
+        float cy = radius * MathUtils.sin(start * MathUtils.degreesToRadians);
+
+        if (!filled) {
+            this.emitLine(x, y, x + cx, y + cy, 1F);
+        }
+
+        for (int i = 0; i < segments; i++) {
+            float px = cx;
+            float py = cy;
+            float temp = cx;
+            cx = cos * cx - sin * cy;
+            cy = sin * temp + cos * cy;
+
+            if (filled) {
+                this.emitTriangle(x, y, x + px, y + py, x + cx, y + cy);
+            } else {
+                this.emitLine(x + px, y + py, x + cx, y + cy, 1F);
+            }
+        }
+
+        if (!filled) {
+            this.emitLine(x + cx, y + cy, x, y, 1F);
+        }
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Emits a circle in the same manner as the
+     * {@link ShapeRenderer}.</p>
+     */
+    private void emitCircle(float x, float y, float radius, boolean filled) {
+        int segments = Math.max(1, (int) (6 * (float) Math.cbrt(radius)));
+        float angle = 2 * MathUtils.PI / segments;
+        float cos = MathUtils.cos(angle);
+        float sin = MathUtils.sin(angle);
+        float cx = radius;
+        float cy = 0;
+
+        for (int i = 0; i < segments; i++) {
+            float px = cx;
+            float py = cy;
+            float temp = cx;
+            cx = cos * cx - sin * cy;
+            cy = sin * temp + cos * cy;
+
+            if (filled) {
+                this.emitTriangle(x, y, x + px, y + py, x + cx, y + cy);
+            } else {
+                this.emitLine(x + px, y + py, x + cx, y + cy, 1F);
+            }
+        }
+    }
 }
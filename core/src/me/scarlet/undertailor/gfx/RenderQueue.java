@@ -0,0 +1,476 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Tellerva, Marc Lawrence
+ *
+ * Permission is hereby granted, free of charge, to any
+ * person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the
+ * Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge,
+ * publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice
+ * shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package me.scarlet.undertailor.gfx;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.Arrays;
+
+/**
+ * Buffer of deferred sprite draws recorded by a
+ * {@link MultiRenderer}.
+ * 
+ * <p>Every command is a single quad, stored as the 20
+ * vertex floats used by a SpriteBatch, alongside a sort
+ * key. Keys are ordered by layer, sub-layer, shader,
+ * texture, blend state and finally submission order, so
+ * sorting the buffer groups draws of the same sub-layer
+ * sharing a texture while leaving the order of everything
+ * else intact.</p>
+ * 
+ * <p>Commands recorded with {@link #AUTO_SUBLAYER} are
+ * given the lowest sub-layer that keeps them above every
+ * earlier command of their layer they overlap with and
+ * were drawn with another shader, texture or blend state.
+ * Draws that do not overlap are thus grouped by texture
+ * across the whole layer, while overlapping draws keep
+ * their order. Once a layer runs out of sub-layers, the
+ * queue reports itself full so it can be drawn before
+ * taking more commands.</p>
+ * 
+ * <p>Buffers are reused between flushes and only grow.</p>
+ */
+class RenderQueue {
+
+    /** The count of floats making up a single command. */
+    static final int SPRITE_SIZE = 20;
+
+    // key layout, from the highest bit:
+    // 1 unused (sign), 16 layer, 10 sub-layer, 6 shader, 10 texture, 1 blend, 20 sequence
+    static final int SEQUENCE_BITS = 20;
+    static final int BLEND_SHIFT = SEQUENCE_BITS;
+    static final int TEXTURE_SHIFT = BLEND_SHIFT + 1;
+    static final int SHADER_SHIFT = TEXTURE_SHIFT + 10;
+    static final int SUBLAYER_SHIFT = SHADER_SHIFT + 6;
+    static final int LAYER_SHIFT = SUBLAYER_SHIFT + 10;
+
+    static final int MAX_COMMANDS = 1 << SEQUENCE_BITS;
+    static final int MAX_TEXTURE_ID = (1 << 10) - 1;
+    static final int MAX_SHADER_ID = (1 << 6) - 1;
+    static final int MAX_SUBLAYER = (1 << 10) - 1;
+    static final int LAYER_BIAS = 1 << 15;
+    static final long SEQUENCE_MASK = MAX_COMMANDS - 1;
+
+    /** The sub-layer asking for one to be selected automatically. */
+    static final int AUTO_SUBLAYER = -1;
+
+    /**
+     * The commands recorded within a single layer, grouped
+     * by sub-layer and draw state, alongside the bounds
+     * covered by each group.
+     */
+    private static class LayerGroups {
+
+        int count;
+        int[] subLayers;
+        long[] states;
+        float[] bounds; // min x, min y, max x, max y per group
+
+        LayerGroups() {
+            this.subLayers = new int[16];
+            this.states = new long[16];
+            this.bounds = new float[16 * 4];
+        }
+
+        /**
+         * Returns the lowest sub-layer a command of the
+         * given state and bounds can be drawn in without
+         * being drawn below a command it overlaps.
+         */
+        int getLowestSubLayer(long state, float minX, float minY, float maxX, float maxY) {
+            int lowest = 0;
+            for (int i = 0; i < this.count; i++) {
+                int offset = i * 4;
+                if (minX < this.bounds[offset + 2] && this.bounds[offset] < maxX
+                    && minY < this.bounds[offset + 3] && this.bounds[offset + 1] < maxY) {
+                    int subLayer = this.states[i] == state ? this.subLayers[i]
+                        : this.subLayers[i] + 1;
+                    lowest = Math.max(lowest, subLayer);
+                }
+            }
+
+            return lowest;
+        }
+
+        /**
+         * Adds the bounds of a command to the group of its
+         * sub-layer and state.
+         */
+        void add(int subLayer, long state, float minX, float minY, float maxX, float maxY) {
+            for (int i = 0; i < this.count; i++) {
+                if (this.subLayers[i] == subLayer && this.states[i] == state) {
+                    int offset = i * 4;
+                    this.bounds[offset] = Math.min(this.bounds[offset], minX);
+                    this.bounds[offset + 1] = Math.min(this.bounds[offset + 1], minY);
+                    this.bounds[offset + 2] = Math.max(this.bounds[offset + 2], maxX);
+                    this.bounds[offset + 3] = Math.max(this.bounds[offset + 3], maxY);
+                    return;
+                }
+            }
+
+            if (this.count >= this.subLayers.length) {
+                int capacity = this.subLayers.length * 2;
+                this.subLayers = Arrays.copyOf(this.subLayers, capacity);
+                this.states = Arrays.copyOf(this.states, capacity);
+                this.bounds = Arrays.copyOf(this.bounds, capacity * 4);
+            }
+
+            int index = this.count++;
+            int offset = index * 4;
+            this.subLayers[index] = subLayer;
+            this.states[index] = state;
+            this.bounds[offset] = minX;
+            this.bounds[offset + 1] = minY;
+            this.bounds[offset + 2] = maxX;
+            this.bounds[offset + 3] = maxY;
+        }
+    }
+
+    private int size;
+    private long[] keys;
+    private float[] vertices;
+    private Texture[] textures;
+    private ShaderProgram[] shaders;
+    private boolean[] blending;
+    private ObjectIntMap<Texture> textureIds;
+    private ObjectIntMap<ShaderProgram> shaderIds;
+    private IntMap<LayerGroups> layers;
+    private Array<LayerGroups> freeLayers;
+    private boolean subLayersExhausted;
+
+    RenderQueue() {
+        this.size = 0;
+        this.keys = new long[64];
+        this.vertices = new float[64 * SPRITE_SIZE];
+        this.textures = new Texture[64];
+        this.shaders = new ShaderProgram[64];
+        this.blending = new boolean[64];
+        this.textureIds = new ObjectIntMap<>();
+        this.shaderIds = new ObjectIntMap<>();
+        this.layers = new IntMap<>();
+        this.freeLayers = new Array<>(false, 16);
+        this.subLayersExhausted = false;
+    }
+
+    /**
+     * Returns the count of commands held by this queue.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether or not this queue can take another
+     * command, which it cannot once it holds as many
+     * commands as it can sort or a layer has used its last
+     * sub-layer.
+     */
+    boolean isFull() {
+        return this.size >= MAX_COMMANDS || this.subLayersExhausted;
+    }
+
+    /**
+     * Records a single quad read from the provided vertex
+     * array.
+     */
+    void add(int layer, int subLayer, Texture texture, ShaderProgram shader, boolean blend,
+        float[] source, int offset) {
+        int index = this.prepare(texture, shader, blend);
+        System.arraycopy(source, offset, this.vertices, index * SPRITE_SIZE, SPRITE_SIZE);
+        this.setKey(index, layer, subLayer);
+    }
+
+    /**
+     * Records a whole texture drawn at the given position.
+     * 
+     * @see com.badlogic.gdx.graphics.g2d.SpriteBatch#draw(Texture,
+     *      float, float)
+     */
+    void addTexture(int layer, int subLayer, Texture texture, ShaderProgram shader,
+        boolean blend, float x, float y, float color) {
+        int index = this.prepare(texture, shader, blend);
+        float x2 = x + texture.getWidth();
+        float y2 = y + texture.getHeight();
+        this.setQuad(index * SPRITE_SIZE, x, y, x, y2, x2, y2, x2, y, 0, 1, 1, 0, color);
+        this.setKey(index, layer, subLayer);
+    }
+
+    /**
+     * Records a region drawn with the given transform,
+     * computing vertices in the same manner as a
+     * SpriteBatch.
+     * 
+     * @see com.badlogic.gdx.graphics.g2d.SpriteBatch#draw(TextureRegion,
+     *      float, float, float, float, float, float,
+     *      float, float, float)
+     */
+    void addRegion(int layer, int subLayer, TextureRegion region, ShaderProgram shader,
+        boolean blend, float x, float y, float originX, float originY, float width, float height,
+        float scaleX, float scaleY, float rotation, float color) {
+        int index = this.prepare(region.getTexture(), shader, blend);
+
+        float worldOriginX = x + originX;
+        float worldOriginY = y + originY;
+        float fx = -originX;
+        float fy = -originY;
+        float fx2 = width - originX;
+        float fy2 = height - originY;
+
+        if (scaleX != 1 || scaleY != 1) {
+            fx *= scaleX;
+            fy *= scaleY;
+            fx2 *= scaleX;
+            fy2 *= scaleY;
+        }
+
+        float x1, y1, x2, y2, x3, y3, x4, y4;
+        if (rotation != 0) {
+            float cos = MathUtils.cosDeg(rotation);
+            float sin = MathUtils.sinDeg(rotation);
+
+            x1 = cos * fx - sin * fy;
+            y1 = sin * fx + cos * fy;
+            x2 = cos * fx - sin * fy2;
+            y2 = sin * fx + cos * fy2;
+            x3 = cos * fx2 - sin * fy2;
+            y3 = sin * fx2 + cos * fy2;
+            x4 = x1 + (x3 - x2);
+            y4 = y3 - (y2 - y1);
+        } else {
+            x1 = fx;
+            y1 = fy;
+            x2 = fx;
+            y2 = fy2;
+            x3 = fx2;
+            y3 = fy2;
+            x4 = fx2;
+            y4 = fy;
+        }
+
+        this.setQuad(index * SPRITE_SIZE, x1 + worldOriginX, y1 + worldOriginY,
+            x2 + worldOriginX, y2 + worldOriginY, x3 + worldOriginX, y3 + worldOriginY,
+            x4 + worldOriginX, y4 + worldOriginY, region.getU(), region.getV2(), region.getU2(),
+            region.getV(), color);
+        this.setKey(index, layer, subLayer);
+    }
+
+    /**
+     * Sorts the recorded commands by their keys.
+     * 
+     * <p>Keys are unique, their lowest bits holding the
+     * submission order, so the sort is stable.</p>
+     */
+    void sort() {
+        Arrays.sort(this.keys, 0, this.size);
+    }
+
+    /**
+     * Returns the index of the command at the given
+     * position in the sorted queue.
+     */
+    int getCommand(int position) {
+        return (int) (this.keys[position] & SEQUENCE_MASK);
+    }
+
+    Texture getTexture(int command) {
+        return this.textures[command];
+    }
+
+    ShaderProgram getShader(int command) {
+        return this.shaders[command];
+    }
+
+    boolean isBlending(int command) {
+        return this.blending[command];
+    }
+
+    float[] getVertices() {
+        return this.vertices;
+    }
+
+    /**
+     * Clears this queue, releasing its references to
+     * textures and shaders.
+     */
+    void clear() {
+        Arrays.fill(this.textures, 0, this.size, null);
+        Arrays.fill(this.shaders, 0, this.size, null);
+        this.textureIds.clear();
+        this.shaderIds.clear();
+        for (LayerGroups groups : this.layers.values()) {
+            groups.count = 0;
+            this.freeLayers.add(groups);
+        }
+
+        this.layers.clear();
+        this.subLayersExhausted = false;
+        this.size = 0;
+    }
+
+    // ---------------- internal ----------------
+
+    /**
+     * Internal method.
+     * 
+     * <p>Reserves space for a new command, returning its
+     * index. Its key is set by
+     * {@link #setKey(int, int, int)} once its vertices are
+     * written.</p>
+     */
+    private int prepare(Texture texture, ShaderProgram shader, boolean blend) {
+        if (this.size >= this.keys.length) {
+            int capacity = this.keys.length * 2;
+            this.keys = Arrays.copyOf(this.keys, capacity);
+            this.vertices = Arrays.copyOf(this.vertices, capacity * SPRITE_SIZE);
+            this.textures = Arrays.copyOf(this.textures, capacity);
+            this.shaders = Arrays.copyOf(this.shaders, capacity);
+            this.blending = Arrays.copyOf(this.blending, capacity);
+        }
+
+        int index = this.size++;
+        this.textures[index] = texture;
+        this.shaders[index] = shader;
+        this.blending[index] = blend;
+        return index;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Computes the sort key of the command at the given
+     * index from its layer and sub-layer, selecting the
+     * latter from the bounds of its vertices if
+     * automatic.</p>
+     */
+    private void setKey(int index, int layer, int subLayer) {
+        long shaderKey = getId(this.shaderIds, this.shaders[index], MAX_SHADER_ID);
+        long textureKey = getId(this.textureIds, this.textures[index], MAX_TEXTURE_ID);
+        long state = (shaderKey << SHADER_SHIFT) | (textureKey << TEXTURE_SHIFT)
+            | ((this.blending[index] ? 1L : 0L) << BLEND_SHIFT);
+
+        float[] vertices = this.vertices;
+        int offset = index * SPRITE_SIZE;
+        float minX = vertices[offset];
+        float minY = vertices[offset + 1];
+        float maxX = minX;
+        float maxY = minY;
+        for (int i = offset + 5; i < offset + SPRITE_SIZE; i += 5) {
+            minX = Math.min(minX, vertices[i]);
+            minY = Math.min(minY, vertices[i + 1]);
+            maxX = Math.max(maxX, vertices[i]);
+            maxY = Math.max(maxY, vertices[i + 1]);
+        }
+
+        LayerGroups groups = this.layers.get(layer);
+        if (groups == null) {
+            groups = this.freeLayers.size > 0 ? this.freeLayers.pop() : new LayerGroups();
+            this.layers.put(layer, groups);
+        }
+
+        if (subLayer < 0) {
+            subLayer = groups.getLowestSubLayer(state, minX, minY, maxX, maxY);
+        }
+
+        if (subLayer >= MAX_SUBLAYER) {
+            subLayer = MAX_SUBLAYER;
+            this.subLayersExhausted = true; // draw everything before the next command
+        }
+
+        groups.add(subLayer, state, minX, minY, maxX, maxY);
+
+        long layerKey = MathUtils.clamp(layer + LAYER_BIAS, 0, (LAYER_BIAS << 1) - 1);
+        this.keys[index] = (layerKey << LAYER_SHIFT) | ((long) subLayer << SUBLAYER_SHIFT)
+            | state | index;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns the small identifier assigned to the
+     * provided object within the current flush, assigning
+     * one if needed. Identifiers past the maximum share the
+     * maximum, leaving such objects in submission
+     * order.</p>
+     */
+    private static <T> int getId(ObjectIntMap<T> ids, T obj, int max) {
+        if (obj == null) {
+            return 0;
+        }
+
+        int id = ids.get(obj, -1);
+        if (id < 0) {
+            id = Math.min(ids.size + 1, max);
+            ids.put(obj, id);
+        }
+
+        return id;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Writes a quad into the vertex buffer, corners
+     * ordered as expected by a SpriteBatch.</p>
+     */
+    private void setQuad(int offset, float x1, float y1, float x2, float y2, float x3, float y3,
+        float x4, float y4, float u, float v, float u2, float v2, float color) {
+        float[] vertices = this.vertices;
+        vertices[offset] = x1;
+        vertices[offset + 1] = y1;
+        vertices[offset + 2] = color;
+        vertices[offset + 3] = u;
+        vertices[offset + 4] = v;
+
+        vertices[offset + 5] = x2;
+        vertices[offset + 6] = y2;
+        vertices[offset + 7] = color;
+        vertices[offset + 8] = u;
+        vertices[offset + 9] = v2;
+
+        vertices[offset + 10] = x3;
+        vertices[offset + 11] = y3;
+        vertices[offset + 12] = color;
+        vertices[offset + 13] = u2;
+        vertices[offset + 14] = v2;
+
+        vertices[offset + 15] = x4;
+        vertices[offset + 16] = y4;
+        vertices[offset + 17] = color;
+        vertices[offset + 18] = u2;
+        vertices[offset + 19] = v;
+    }
+}
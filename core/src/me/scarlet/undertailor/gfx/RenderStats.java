@@ -0,0 +1,203 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Tellerva, Marc Lawrence
+ *
+ * Permission is hereby granted, free of charge, to any
+ * person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the
+ * Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge,
+ * publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice
+ * shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package me.scarlet.undertailor.gfx;
+
+import java.util.Arrays;
+
+/**
+ * Per-frame rendering statistics recorded by a
+ * {@link MultiRenderer}.
+ * 
+ * <p>Counters accumulate over the course of a frame and
+ * are committed once the frame ends, at which point they
+ * are also appended to a rolling history used for
+ * percentile reporting. Statistics are tracked purely on
+ * the Java side and never query the graphics backend.</p>
+ */
+public class RenderStats {
+
+    /**
+     * The count of frames kept in the rolling history.
+     */
+    public static final int HISTORY_SIZE = 240;
+
+    /**
+     * The types of statistics tracked.
+     */
+    public enum Stat {
+        /** Draw requests submitted to the renderer. */
+        DRAW_CALLS("drawCalls"),
+        /** Flushes of vertex data to the GPU. */
+        FLUSHES("flushes"),
+        /** Changes of the texture being drawn with. */
+        TEXTURE_SWITCHES("textureSwitches"),
+        /** Changes of the sprite shader. */
+        SHADER_SWITCHES("shaderSwitches"),
+        /** Switches between sprite and shape drawing. */
+        MODE_SWITCHES("modeSwitches"),
+        /** Changes of the sprite or shape draw color. */
+        COLOR_CHANGES("colorChanges"),
+        /** Changes of a projection or transform matrix. */
+        MATRIX_CHANGES("matrixChanges");
+
+        private String name;
+
+        Stat(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the name of this statistic, as exposed to
+         * Lua.
+         * 
+         * @return the name of this Stat
+         */
+        public String getName() {
+            return this.name;
+        }
+    }
+
+    private static final Stat[] STATS = Stat.values();
+
+    private int[] current;
+    private int[] last;
+    private int[][] history;
+    private int[] sortBuffer;
+    private int historyIndex;
+    private int historyCount;
+
+    public RenderStats() {
+        this.current = new int[STATS.length];
+        this.last = new int[STATS.length];
+        this.history = new int[STATS.length][HISTORY_SIZE];
+        this.sortBuffer = new int[HISTORY_SIZE];
+        this.historyIndex = 0;
+        this.historyCount = 0;
+    }
+
+    /**
+     * Returns the value of the provided statistic as of the
+     * last complete frame.
+     * 
+     * @param stat the statistic to query
+     * 
+     * @return the statistic's value in the last frame
+     */
+    public int get(Stat stat) {
+        return this.last[stat.ordinal()];
+    }
+
+    /**
+     * Returns the value of the provided statistic at the
+     * given percentile of the recorded frame history, using
+     * the nearest-rank method.
+     * 
+     * @param stat the statistic to query
+     * @param percentile the percentile to query, between 0
+     *        and 100
+     * 
+     * @return the statistic's value at the percentile, or 0
+     *         if no frames were recorded yet
+     */
+    public int getPercentile(Stat stat, float percentile) {
+        if (this.historyCount <= 0) {
+            return 0;
+        }
+
+        float clamped = Math.max(0F, Math.min(100F, percentile));
+        System.arraycopy(this.history[stat.ordinal()], 0, this.sortBuffer, 0, this.historyCount);
+        Arrays.sort(this.sortBuffer, 0, this.historyCount);
+        int rank = (int) Math.ceil((clamped / 100F) * this.historyCount);
+        return this.sortBuffer[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Returns the count of frames currently held in the
+     * rolling history.
+     * 
+     * @return the count of recorded frames
+     */
+    public int getRecordedFrames() {
+        return this.historyCount;
+    }
+
+    /**
+     * Clears all recorded statistics, including the
+     * rolling history.
+     */
+    public void reset() {
+        Arrays.fill(this.current, 0);
+        Arrays.fill(this.last, 0);
+        this.historyIndex = 0;
+        this.historyCount = 0;
+    }
+
+    // ---------------- internal ----------------
+
+    /**
+     * Internal method.
+     * 
+     * <p>Increments the provided statistic for the current
+     * frame.</p>
+     */
+    void increment(Stat stat) {
+        this.current[stat.ordinal()]++;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Adds to the provided statistic for the current
+     * frame.</p>
+     */
+    void add(Stat stat, int amount) {
+        this.current[stat.ordinal()] += amount;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Commits the statistics of the current frame and
+     * records them into the rolling history.</p>
+     */
+    void endFrame() {
+        for (int i = 0; i < STATS.length; i++) {
+            this.last[i] = this.current[i];
+            this.history[i][this.historyIndex] = this.current[i];
+            this.current[i] = 0;
+        }
+
+        this.historyIndex = (this.historyIndex + 1) % HISTORY_SIZE;
+        if (this.historyCount < HISTORY_SIZE) {
+            this.historyCount++;
+        }
+    }
+}
@@ -42,6 +42,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import me.scarlet.undertailor.exception.BadAssetException;
+import me.scarlet.undertailor.gfx.AtlasPacker;
 import me.scarlet.undertailor.gfx.MultiRenderer;
 import me.scarlet.undertailor.gfx.spritesheet.PackagedSpriteSheetFactory.PackagedSpriteSheet;
 import me.scarlet.undertailor.gfx.spritesheet.Sprite.SpriteMeta;
@@ -135,6 +136,16 @@ public class PackagedSpriteSheetFactory extends ResourceFactory<Texture, Package
         public int getSpriteCount() {
             return factory.sprites.size;
         }
+
+        /**
+         * Returns the names of all the sprites held by this
+         * {@link PackagedSpriteSheet}.
+         * 
+         * @return an Array of sprite names
+         */
+        public Array<String> getSpriteNames() {
+            return factory.sprites.keys().toArray();
+        }
     }
 
     static Logger log = LoggerFactory.getLogger(PackagedSpriteSheetFactory.class);
@@ -144,14 +155,33 @@ public class PackagedSpriteSheetFactory extends ResourceFactory<Texture, Package
 
     private String name;
     private ZipFile sourceFile;
+    private AtlasPacker packer;
     private MultiRenderer renderer;
     private ObjectMap<String, Sprite> sprites;
     private ConfigurationNode sheetConfig;
 
     public PackagedSpriteSheetFactory(String name, MultiRenderer renderer, ZipFile sourceFile) {
+        this(name, renderer, sourceFile, null);
+    }
+
+    /**
+     * Creates a new {@link PackagedSpriteSheetFactory},
+     * packing its image using the provided
+     * {@link AtlasPacker}.
+     * 
+     * @param name the name of the spritesheet
+     * @param renderer the renderer to draw sprites with
+     * @param sourceFile the spritesheet archive
+     * @param packer the AtlasPacker to pack the
+     *        spritesheet's image into, or null to give the
+     *        spritesheet its own texture
+     */
+    public PackagedSpriteSheetFactory(String name, MultiRenderer renderer, ZipFile sourceFile,
+        AtlasPacker packer) {
         this.name = name;
         this.renderer = renderer;
         this.sourceFile = sourceFile;
+        this.packer = null;
 
         this.sprites = new ObjectMap<>();
 
@@ -169,26 +199,41 @@ public class PackagedSpriteSheetFactory extends ResourceFactory<Texture, Package
         } finally {
             StreamUtil.closeQuietly(configStream);
         }
+
+        if (packer != null) {
+            try {
+                Pixmap pixmap = this.readPixmap();
+                if (packer.pack(this.getPackedName(), pixmap)) {
+                    this.packer = packer;
+                }
+
+                pixmap.dispose();
+            } catch (IOException e) {
+                log.error("Failed to pack packaged spritesheet", e);
+            }
+        }
     }
 
     // ---------------- abstract method implementation ----------------
 
     @Override
     protected CompletableFuture<Texture> loadDisposable() {
-        InputStream textureStream = null;
         try { // load the spritesheet here
-            textureStream = sourceFile.getInputStream(sourceFile.getEntry(ENTRY_SPRITESHEET));
-            Gdx2DPixmap readMap = new Gdx2DPixmap(textureStream, Gdx2DPixmap.GDX2D_FORMAT_RGBA8888);
-            Texture texture = new Texture(new Pixmap(readMap));
-            readMap.dispose();
+            if (this.packer != null) {
+                TextureRegion region = this.packer.getRegion(this.getPackedName());
+                this.loadSheet(region);
+                return CompletableFuture.completedFuture(region.getTexture());
+            }
 
-            this.loadSheet(texture);
+            Pixmap pixmap = this.readPixmap();
+            Texture texture = new Texture(pixmap);
+            pixmap.dispose();
+
+            this.loadSheet(new TextureRegion(texture));
 
             return CompletableFuture.completedFuture(texture);
         } catch (Exception e) {
             log.error("Failed to load packaged spritesheet", e);
-        } finally {
-            StreamUtil.closeQuietly(textureStream);
         }
 
         return null;
@@ -214,6 +259,40 @@ public class PackagedSpriteSheetFactory extends ResourceFactory<Texture, Package
         return true;
     }
 
+    @Override
+    protected boolean isDisposableShared(Texture disposable) {
+        return this.packer != null; // atlas pages are owned by the packer
+    }
+
+    // ---------------- internal methods ----------------
+
+    /**
+     * Internal method.
+     * 
+     * <p>Reads the spritesheet image held by the source
+     * archive.</p>
+     */
+    private Pixmap readPixmap() throws IOException {
+        InputStream textureStream = null;
+        try {
+            textureStream = sourceFile.getInputStream(sourceFile.getEntry(ENTRY_SPRITESHEET));
+            return new Pixmap(
+                new Gdx2DPixmap(textureStream, Gdx2DPixmap.GDX2D_FORMAT_RGBA8888));
+        } finally {
+            StreamUtil.closeQuietly(textureStream);
+        }
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns the name the spritesheet image is packed
+     * under.</p>
+     */
+    private String getPackedName() {
+        return "sheet:" + this.name;
+    }
+
     // ---------------- configuration loader ----------------
 
     private static Object[] KEY_VERSION = {"version"};
@@ -239,7 +318,7 @@ public class PackagedSpriteSheetFactory extends ResourceFactory<Texture, Package
      * 
      * <p>Implementing configuration version 0.</p>
      */
-    private void loadSheet(Texture texture) throws BadAssetException { // implementing version 0
+    private void loadSheet(TextureRegion sheet) throws BadAssetException { // implementing version 0
         int version = this.sheetConfig.getNode(KEY_VERSION).getInt(-1);
         if (version != 1) {
             String message = version == -1
@@ -278,7 +357,7 @@ public class PackagedSpriteSheetFactory extends ResourceFactory<Texture, Package
             metadata.originY = meta.getNode(KEY_META_ORIGINY).getFloat(defOriginY);
 
             Sprite added = new Sprite(this.renderer,
-                new TextureRegion(texture, posX, posY, sizeX, sizeY), metadata);
+                new TextureRegion(sheet, posX, posY, sizeX, sizeY), metadata);
             this.sprites.put(spriteName, added);
         }
     }
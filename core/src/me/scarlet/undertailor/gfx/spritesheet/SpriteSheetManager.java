@@ -34,6 +34,7 @@ import com.badlogic.gdx.utils.ObjectMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import me.scarlet.undertailor.gfx.AtlasPacker;
 import me.scarlet.undertailor.gfx.MultiRenderer;
 import me.scarlet.undertailor.util.FileUtil;
 
@@ -48,11 +49,13 @@ public class SpriteSheetManager {
 
     private static Logger log = LoggerFactory.getLogger(SpriteSheetManager.class);
 
+    private AtlasPacker packer;
     private MultiRenderer renderer;
     private ObjectMap<String, SpriteSheetFactory> sheets;
 
-    public SpriteSheetManager(MultiRenderer renderer) {
+    public SpriteSheetManager(MultiRenderer renderer, AtlasPacker packer) {
         this.renderer = renderer;
+        this.packer = packer;
         this.sheets = new ObjectMap<>();
     }
 
@@ -90,7 +93,7 @@ public class SpriteSheetManager {
             File targetFile = files.get(key);
             try {
                 this.sheets.put(key,
-                    new PackagedSpriteSheetFactory(key, renderer, new ZipFile(targetFile)));
+                    new PackagedSpriteSheetFactory(key, renderer, new ZipFile(targetFile), packer));
                 log.info(
                     "Loaded packaged spritesheet " + targetFile.getName() + " under key " + key);
             } catch (Exception e) {
@@ -33,6 +33,7 @@ package me.scarlet.undertailor.gfx.text;
 import static me.scarlet.undertailor.util.ConfigUtil.checkExists;
 import static me.scarlet.undertailor.util.ConfigUtil.checkValue;
 
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ObjectMap;
 import ninja.leaping.configurate.ConfigurationNode;
 import ninja.leaping.configurate.json.JSONConfigurationLoader;
@@ -40,6 +41,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import me.scarlet.undertailor.exception.BadAssetException;
+import me.scarlet.undertailor.gfx.AtlasPacker;
 import me.scarlet.undertailor.gfx.MultiRenderer;
 import me.scarlet.undertailor.gfx.spritesheet.PackagedSpriteSheetFactory;
 import me.scarlet.undertailor.gfx.spritesheet.PackagedSpriteSheetFactory.PackagedSpriteSheet;
@@ -71,10 +73,36 @@ public class Font {
     private Pair<Float> defaultLetterSpacing;
     private ObjectMap<Character, Pair<Float>> letterSpacing;
 
+    // dense glyph tables, indexed by (character - glyphBase)
+    private int glyphBase;
+    private Sprite[] glyphs;
+    private float[] advances;
+    private float[] spacingLeft;
+    private float[] spacingRight;
+
     public Font(String fontName, MultiRenderer renderer, ZipFile sourceFile)
+        throws BadAssetException {
+        this(fontName, renderer, sourceFile, null);
+    }
+
+    /**
+     * Loads a new {@link Font}, packing its glyphs using
+     * the provided {@link AtlasPacker}.
+     * 
+     * @param fontName the name of the font
+     * @param renderer the renderer to draw glyphs with
+     * @param sourceFile the font archive
+     * @param packer the AtlasPacker to pack the font's
+     *        glyphs into, or null to give the font its own
+     *        texture
+     * 
+     * @throws BadAssetException if the font could not be
+     *         loaded
+     */
+    public Font(String fontName, MultiRenderer renderer, ZipFile sourceFile, AtlasPacker packer)
         throws BadAssetException {
         PackagedSpriteSheetFactory sheetFactory =
-            new PackagedSpriteSheetFactory("#fnt-" + fontName, renderer, sourceFile);
+            new PackagedSpriteSheetFactory("#fnt-" + fontName, renderer, sourceFile, packer);
         this.sheet = sheetFactory.getResource();
         this.letterSpacing = new ObjectMap<>();
         this.renderer = renderer;
@@ -92,6 +120,7 @@ public class Font {
             }).build();
 
             this.loadConfig(loader.load());
+            this.loadGlyphs();
         } catch (IOException e) {
             BadAssetException thrown = new BadAssetException();
             thrown.initCause(e);
@@ -150,6 +179,62 @@ public class Font {
         return this.defaultLetterSpacing;
     }
 
+    /**
+     * Returns the letter spacing to the left of the
+     * provided character.
+     * 
+     * @param character the character to check
+     * 
+     * @return the left letter spacing of the character
+     * 
+     * @see #getLetterSpacing(char)
+     */
+    public float getLetterSpacingLeft(char character) {
+        int index = character - this.glyphBase;
+        if (index >= 0 && index < this.spacingLeft.length) {
+            return this.spacingLeft[index];
+        }
+
+        return this.defaultLetterSpacing.getA();
+    }
+
+    /**
+     * Returns the letter spacing to the right of the
+     * provided character.
+     * 
+     * @param character the character to check
+     * 
+     * @return the right letter spacing of the character
+     * 
+     * @see #getLetterSpacing(char)
+     */
+    public float getLetterSpacingRight(char character) {
+        int index = character - this.glyphBase;
+        if (index >= 0 && index < this.spacingRight.length) {
+            return this.spacingRight[index];
+        }
+
+        return this.defaultLetterSpacing.getB();
+    }
+
+    /**
+     * Returns the count of units the provided character
+     * takes horizontally, not counting letter spacing.
+     * 
+     * @param character the character to check
+     * 
+     * @return the width of the character, or 0 if the
+     *         character is unsupported
+     */
+    public float getAdvance(char character) {
+        int index = character - this.glyphBase;
+        if (index >= 0 && index < this.advances.length) {
+            return this.advances[index];
+        }
+
+        return 0;
+    }
+
     /**
      * Returns the {@link Sprite} assigned to the provided
      * character as denoted by this {@link Font}, or null if
@@ -158,7 +243,12 @@ public class Font {
      * @param character the target character
      */
     public Sprite getCharacterSprite(char character) {
-        return this.sheet.getSprite(Character.toString(character));
+        int index = character - this.glyphBase;
+        if (index >= 0 && index < this.glyphs.length) {
+            return this.glyphs[index];
+        }
+
+        return null;
     }
 
     // ---------------- configuration loader ----------------
@@ -259,4 +349,51 @@ public class Font {
             this.letterSpacing.put(character, spacingPair);
         }
     }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Builds the glyph tables used to look up character
+     * sprites, spacing and advance widths without touching
+     * any maps. The tables cover the range of characters
+     * between the lowest and highest character either
+     * having a sprite or letter spacing.</p>
+     */
+    private void loadGlyphs() {
+        Array<String> names = this.sheet.getSpriteNames();
+        int min = Integer.MAX_VALUE;
+        int max = -1;
+        for (String name : names) {
+            if (name.length() == 1) {
+                min = Math.min(min, name.charAt(0));
+                max = Math.max(max, name.charAt(0));
+            }
+        }
+
+        for (Character character : this.letterSpacing.keys()) {
+            min = Math.min(min, character);
+            max = Math.max(max, character);
+        }
+
+        int size = max < 0 ? 0 : max - min + 1;
+        this.glyphBase = max < 0 ? 0 : min;
+        this.glyphs = new Sprite[size];
+        this.advances = new float[size];
+        this.spacingLeft = new float[size];
+        this.spacingRight = new float[size];
+
+        for (int i = 0; i < size; i++) {
+            Pair<Float> spacing = this.getLetterSpacing((char) (this.glyphBase + i));
+            this.spacingLeft[i] = spacing.getA();
+            this.spacingRight[i] = spacing.getB();
+        }
+
+        for (String name : names) {
+            if (name.length() == 1) {
+                int index = name.charAt(0) - this.glyphBase;
+                this.glyphs[index] = this.sheet.getSprite(name);
+                this.advances[index] = this.glyphs[index].getTextureRegion().getRegionWidth();
+            }
+        }
+    }
 }
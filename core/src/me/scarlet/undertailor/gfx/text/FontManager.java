@@ -35,6 +35,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import me.scarlet.undertailor.exception.BadAssetException;
+import me.scarlet.undertailor.gfx.AtlasPacker;
 import me.scarlet.undertailor.gfx.MultiRenderer;
 import me.scarlet.undertailor.util.FileUtil;
 
@@ -50,11 +51,13 @@ public class FontManager {
 
     private static Logger log = LoggerFactory.getLogger(FontManager.class);
 
+    private AtlasPacker packer;
     private MultiRenderer renderer;
     private ObjectMap<String, Font> fonts;
 
-    public FontManager(MultiRenderer renderer) {
+    public FontManager(MultiRenderer renderer, AtlasPacker packer) {
         this.renderer = renderer;
+        this.packer = packer;
         this.fonts = new ObjectMap<>();
     }
 
@@ -89,7 +92,7 @@ public class FontManager {
             }
 
             try {
-                Font font = new Font(key, this.renderer, new ZipFile(fontFile));
+                Font font = new Font(key, this.renderer, new ZipFile(fontFile), this.packer);
                 this.fonts.put(key, font);
 
                 log.info("Loaded font " + fontFile.getName() + " under key " + key);
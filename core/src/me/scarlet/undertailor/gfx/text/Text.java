@@ -31,15 +31,21 @@
 package me.scarlet.undertailor.gfx.text;
 
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.OrderedMap;
 import com.badlogic.gdx.utils.TimeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import me.scarlet.undertailor.Undertailor;
+import me.scarlet.undertailor.gfx.MultiRenderer;
 import me.scarlet.undertailor.gfx.Renderable;
 import me.scarlet.undertailor.gfx.Transform;
 import me.scarlet.undertailor.gfx.spritesheet.Sprite;
+import me.scarlet.undertailor.gfx.text.TextStyle.BatchMeta;
 import me.scarlet.undertailor.gfx.text.TextStyle.DisplayMeta;
 import me.scarlet.undertailor.gfx.text.parse.ParsedText;
 import me.scarlet.undertailor.util.CollectionUtil;
@@ -57,6 +63,11 @@ public class Text extends TextComponent implements Renderable {
     static final char SPACE = ' ';
     static final char NEWLINE = '\n';
 
+    /** The count of glyph quads submitted at once by glyph runs. */
+    static final int RUN_SIZE = 64;
+    /** The count of vertex floats of a single glyph quad. */
+    static final int QUAD_SIZE = 20;
+
     /**
      * Builder-type class for building {@link Text}s.
      */
@@ -88,18 +99,20 @@ public class Text extends TextComponent implements Renderable {
          * @return this Builder
          */
         public Builder addComponents(TextComponent... components) {
+            ((Text) this.component).revealing = false; // reveal tables cover the old text
             for (TextComponent component : components) {
                 this.component.text = this.component.text.concat(component.text);
                 component.parent = (Text) this.component;
 
                 Text text = ((Text) this.component);
-                if (text.components.size <= 0) {
-                    text.components.put(0, component);
-                } else {
-                    int last = CollectionUtil.lastKey(text.components);
-                    int map = last + text.components.get(last).text.length();
-                    text.components.put(map, component);
+                int map = 0;
+                if (text.componentList.size > 0) {
+                    map = text.componentStarts.peek() + text.componentList.peek().text.length();
                 }
+
+                text.components.put(map, component);
+                text.componentStarts.add(map);
+                text.componentList.add(component);
             }
 
             return this;
@@ -134,6 +147,8 @@ public class Text extends TextComponent implements Renderable {
                 this.component.color = Color.WHITE;
             }
 
+            // the builder may have changed the font or components since the last build
+            ((Text) this.component).revealing = false;
             ((Text) this.component).refreshValues();
             return (Text) this.component;
         }
@@ -196,18 +211,42 @@ public class Text extends TextComponent implements Renderable {
     // ---------------- object ----------------
 
     private int lineCount;
+    private int layoutEnd; // count of laid out glyphs to draw
+    private TextLayout layout;
+    private TextMesh mesh;
     private Transform transform;
     private Pair<Float> spaceTaken;
     private long instantiationTime;
     private Pair<Integer> stringBounds;
     private OrderedMap<Integer, TextComponent> components; // integer marks start index of the component
+    // the same components, with their start indices as a sorted primitive array
+    private IntArray componentStarts;
+    private Array<TextComponent> componentList;
+
+    // reveal tables, indexed by character
+    private boolean revealing;
+    private int r_firstVisible;
+    private float r_maxWidth;
+    private int[] r_glyphs;
+    private float[] r_width, r_height;
+    private int[] r_newlines, r_lastVisible;
 
     // objects held so we don't spam new objects
     private Pair<Integer> m_valuePair;
     private Transform m_drawnTransform;
+    private BatchMeta m_glyphMeta;
+    private BatchMeta m_styleMeta;
+    private ObjectMap<TextComponent, TextStyle[]> m_componentStyles;
+    private float[] m_runVertices;
+    private Texture m_runTexture;
+    private int m_runCount;
 
     private Text() {
         this.components = new OrderedMap<>();
+        this.componentStarts = new IntArray(true, 8);
+        this.componentList = new Array<>(true, 8);
+        this.layout = new TextLayout();
+        this.mesh = new TextMesh();
 
         this.instantiationTime = TimeUtils.millis();
         this.stringBounds = new Pair<>(0, 0);
@@ -216,74 +255,117 @@ public class Text extends TextComponent implements Renderable {
 
         this.m_valuePair = new Pair<>();
         this.m_drawnTransform = new Transform();
+        this.m_glyphMeta = new BatchMeta();
+        this.m_styleMeta = new BatchMeta();
+        this.m_componentStyles = new ObjectMap<>();
+        this.m_runVertices = new float[RUN_SIZE * QUAD_SIZE];
     }
 
     // ---------------- abstract method implementation ----------------
 
     // method-specific variables because stupid scope rules
     float dX, dY, prevSpacing;
+    int dLine, dGlyphs;
 
     @Override
     public void render(float x, float y) {
-        dX = x;
-        dY = y;
-        prevSpacing = 0;
+        TextLayout layout = this.layout;
+        MultiRenderer renderer = font.getRenderer();
+        float scaleX = this.transform.getScaleX();
+        float scaleY = this.transform.getScaleY();
+
+        // unstyled glyphs skip the sprite path entirely if
+        // there's no rotation to apply
+        boolean runs = this.transform.getRotation() == 0;
+        boolean flipX = this.transform.getFlipX();
+        boolean flipY = this.transform.getFlipY();
+        if (runs && this.layoutEnd <= layout.firstStyled) {
+            // nothing drawn is styled; the text is static and
+            // its vertices can be kept from the last frame
+            if (!this.mesh.isValid(this.componentList, this.layoutEnd, x, y, scaleX, scaleY, flipX,
+                flipY)) {
+                this.mesh.bake(layout, this.componentList, this.layoutEnd, x, y, scaleX, scaleY,
+                    flipX, flipY);
+            }
 
-        this.processCharacters((localIndex, component) -> {
-            char character = component.getText().charAt(localIndex.getB());
+            this.mesh.render(renderer);
+            return;
+        }
 
-            if (character == SPACE) { // space?
-                dX += font.getSpaceLength() * transform.getScaleX();
-                prevSpacing = 0;
-            } else if (character == NEWLINE) { // new line?
-                dX = x;
-                dY -= font.getLineSize() * transform.getScaleY();
-                prevSpacing = 0;
-            } else { // character?
-                Sprite sprite = this.font.getCharacterSprite(character);
+        long time = TimeUtils.timeSinceMillis(this.instantiationTime);
+        int textLength = this.getText().length();
+        boolean batched = layout.batchedStyles.size > 0;
+        if (batched) {
+            this.applyBatchedStyles(time, textLength);
+        }
 
-                if (sprite != null) { // character actually exists?
-                    // grab the stuff we're using
-                    Pair<Float> letterSpacing = font.getLetterSpacing(character);
-                    // reset the drawing transform
-                    this.m_drawnTransform = this.transform.copyInto(this.m_drawnTransform);
-
-                    // process display meta from styles
-                    DisplayMeta dMeta = Text.generateDisplayMeta();
-                    if (component.getStyles().size > 0) {
-                        component.getStyles().forEach(style -> {
-                            style.apply(dMeta, TimeUtils.timeSinceMillis(this.instantiationTime),
-                                character, localIndex.getA() + localIndex.getB(),
-                                this.getText().length());
-                        });
-
-                        this.m_drawnTransform
-                            .setScaleX(this.m_drawnTransform.getScaleX() * dMeta.scaleX);
-                        this.m_drawnTransform
-                            .setScaleY(this.m_drawnTransform.getScaleY() * dMeta.scaleY);
-                        this.m_drawnTransform.addRotation(dMeta.rotation);
-                    }
+        TextComponent runComponent = null;
+        float runColor = 0;
+
+        // horizontal shift caused by styles scaling the
+        // glyphs before the current one on the same line
+        float drift = 0;
+        int line = -1;
+        for (int i = 0; i < this.layoutEnd; i++) {
+            if (layout.lines[i] != line) {
+                line = layout.lines[i];
+                drift = 0;
+            }
 
-                    // process character right vs left spacing from previous character
-                    if (prevSpacing > 0) {
-                        dX += Math.max(prevSpacing, letterSpacing.getA())
-                            * m_drawnTransform.getScaleX();
-                    }
+            TextComponent component = layout.components[i];
+            if (runs && layout.plain[i]) {
+                if (component != runComponent) {
+                    runComponent = component;
+                    runColor = component.getColor().toFloatBits();
+                }
 
-                    // set our color and final drawing positions
-                    font.getRenderer().setBatchColor(component.getColor());
-                    float dpX = dX + (dMeta.offX * m_drawnTransform.getScaleX());
-                    float dpY = dY + (dMeta.offY * m_drawnTransform.getScaleY());
+                this.addRunGlyph(renderer, layout.sprites[i], x + ((layout.x[i] + drift) * scaleX),
+                    y + (layout.y[i] * scaleY), scaleX, scaleY, flipX, flipY, runColor);
+                continue;
+            }
 
-                    sprite.render(dpX, dpY, m_drawnTransform);
+            this.flushRun(renderer);
+            runComponent = null;
+            // reset the drawing transform
+            this.m_drawnTransform = this.transform.copyInto(this.m_drawnTransform);
+
+            // process display meta from styles
+            DisplayMeta dMeta = Text.generateDisplayMeta();
+            float styleScaleX = 1F;
+            TextStyle[] styles = layout.styles[i];
+            if (batched || styles.length > 0) {
+                if (batched) {
+                    dMeta.offX = m_glyphMeta.offX[i];
+                    dMeta.offY = m_glyphMeta.offY[i];
+                    dMeta.scaleX = m_glyphMeta.scaleX[i];
+                    dMeta.scaleY = m_glyphMeta.scaleY[i];
+                    dMeta.rotation = m_glyphMeta.rotation[i];
+                }
 
-                    // save this character's right-spacing for the next character
-                    prevSpacing = letterSpacing.getB();
-                    // offset the marker
-                    dX += sprite.getTextureRegion().getRegionWidth() * m_drawnTransform.getScaleX();
+                for (int j = 0; j < styles.length; j++) {
+                    styles[j].apply(dMeta, time, layout.characters[i], layout.indices[i],
+                        textLength);
                 }
+
+                styleScaleX = dMeta.scaleX;
+                this.m_drawnTransform.setScaleX(this.m_drawnTransform.getScaleX() * dMeta.scaleX);
+                this.m_drawnTransform.setScaleY(this.m_drawnTransform.getScaleY() * dMeta.scaleY);
+                this.m_drawnTransform.addRotation(dMeta.rotation);
             }
-        });
+
+            // styles scale the spacing before the glyph alongside the glyph itself
+            float glyphX = layout.x[i] + drift + (layout.leads[i] * (styleScaleX - 1));
+            drift += (layout.leads[i] + layout.advances[i]) * (styleScaleX - 1);
+
+            // set our color and final drawing positions
+            renderer.setBatchColor(component.getColor());
+            float dpX = x + (glyphX * scaleX) + (dMeta.offX * m_drawnTransform.getScaleX());
+            float dpY = y + (layout.y[i] * scaleY) + (dMeta.offY * m_drawnTransform.getScaleY());
+
+            layout.sprites[i].render(dpX, dpY, m_drawnTransform);
+        }
+
+        this.flushRun(renderer);
     }
 
     // ---------------- getters: immutable/calculated ----------------
@@ -340,6 +422,22 @@ public class Text extends TextComponent implements Renderable {
         return this.lineCount;
     }
 
+    /**
+     * Returns the count of bytes held by the vertices this
+     * {@link Text} has baked for redrawing.
+     * 
+     * <p>Text with no styles and no rotation is baked the
+     * first time it is drawn, and replayed as-is until it
+     * is moved, transformed, recolored or bounded
+     * differently.</p>
+     * 
+     * @return the memory used by the baked vertices of this
+     *         Text, in bytes
+     */
+    public int getMeshMemory() {
+        return this.mesh.getVertexMemory();
+    }
+
     // ---------------- g/s text parameters ----------------
 
     /**
@@ -395,18 +493,8 @@ public class Text extends TextComponent implements Renderable {
      * @return the TextComponent owning the character
      */
     public TextComponent getTextComponentAt(int index) {
-        if (index < 0 || index >= this.getText().length()) {
-            return null;
-        }
-
-        for (int i = index + 1; i >= 0; i--) {
-            TextComponent comp = this.components.get(i);
-            if (comp != null) {
-                return comp;
-            }
-        }
-
-        return null;
+        int component = this.getComponentIndex(index);
+        return component < 0 ? null : this.componentList.get(component);
     }
 
     /**
@@ -532,9 +620,20 @@ public class Text extends TextComponent implements Renderable {
      *        character
      */
     private void processCharacters(BiConsumer<Pair<Integer>, TextComponent> consumer) {
-        int boundL = this.getStringBounds().getA();
-        int boundR = this.getStringBounds().getB();
+        this.processCharacters(this.getStringBounds().getA(), this.getStringBounds().getB(),
+            consumer);
+    }
 
+    /**
+     * Internal method.
+     * 
+     * <p>Iterates through each character within the given
+     * bounds, rather than the current string bounds.</p>
+     * 
+     * @see #processCharacters(BiConsumer)
+     */
+    private void processCharacters(int boundL, int boundR,
+        BiConsumer<Pair<Integer>, TextComponent> consumer) {
         if (boundL < 0) {
             boundL = this.getText().length() - Math.abs(boundL);
         }
@@ -543,36 +642,58 @@ public class Text extends TextComponent implements Renderable {
             boundR = this.getText().length() - Math.abs(boundR);
         }
 
-        TextComponent first = boundL == 0 ? null : this.getTextComponentAt(boundL);
-        TextComponent last = boundR == 0 ? null : this.getTextComponentAt(boundR);
-        for (OrderedMap.Entry<Integer, TextComponent> entry : this.components.entries()) {
-            if (first != null) { // if first is null, we've found the first component to iterate through
-                if (entry.value != first) {
-                    continue;
-                }
-
-                first = null;
-            }
+        // jump straight to the component holding the left bound
+        int first = boundL == 0 ? 0 : Math.max(0, this.getComponentIndex(boundL));
+        int[] starts = this.componentStarts.items;
+        for (int i = first; i < this.componentList.size; i++) {
+            TextComponent component = this.componentList.get(i);
+            int start = starts[i];
 
             int localIndex = 0;
-            if (boundL != 0 && entry.key < boundL) {
-                localIndex += boundL - entry.key;
+            if (boundL != 0 && start < boundL) {
+                localIndex += boundL - start;
             }
 
-            this.m_valuePair.setA(entry.key);
-            for (int ind = localIndex; ind < entry.value.getText().length(); ind++) {
+            this.m_valuePair.setA(start);
+            for (int ind = localIndex; ind < component.getText().length(); ind++) {
                 this.m_valuePair.setB(ind);
-                consumer.accept(this.m_valuePair, entry.value);
+                consumer.accept(this.m_valuePair, component);
 
-                if (boundR != 0 && entry.key + ind >= boundR) {
+                if (boundR != 0 && start + ind >= boundR) {
                     return;
                 }
             }
+        }
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns the position of the component holding the
+     * character at the given index, found by binary search
+     * over the start indices of the components.</p>
+     * 
+     * @return the position of the component, or -1 if the
+     *         index is out of bounds
+     */
+    private int getComponentIndex(int index) {
+        if (index < 0 || index >= this.getText().length()) {
+            return -1;
+        }
 
-            if (entry.value == last) {
-                return;
+        int[] starts = this.componentStarts.items;
+        int low = 0;
+        int high = this.componentStarts.size - 1;
+        while (low < high) { // find the last component starting at or before the index
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
             }
         }
+
+        return low;
     }
 
     /**
@@ -582,8 +703,295 @@ public class Text extends TextComponent implements Renderable {
      * values.</p>
      */
     private void refreshValues() {
+        int boundL = this.stringBounds.getA();
+        int boundR = this.stringBounds.getB();
+        if (boundL == 0 && boundR >= 0 && boundR <= this.getText().length()) {
+            // only the end of the text is cut off; typically
+            // a typewriter revealing the text
+            this.applyRevealTables(boundR);
+            return;
+        }
+
+        this.revealing = false;
+        this.calculateLayout(false);
         this.calculateSpace();
         this.calculateLines();
+        this.layoutEnd = this.layout.size;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Applies string bounds cutting off only the end of
+     * the text, without walking the text again.</p>
+     * 
+     * <p>The whole text is laid out once, alongside tables
+     * holding the space taken, the count of glyphs and the
+     * count of line breaks and visible characters before
+     * each character. Moving the end bound afterwards only
+     * looks up those tables.</p>
+     */
+    private void applyRevealTables(int boundR) {
+        if (!this.revealing) {
+            this.calculateLayout(true);
+            this.calculateRevealTables();
+            this.revealing = true;
+        }
+
+        int length = this.getText().length();
+
+        // calculateSpace() and the layout include the character at the right bound
+        int last = boundR == 0 ? length - 1 : Math.min(boundR, length - 1);
+        if (last < 0) {
+            this.layoutEnd = 0;
+            this.spaceTaken.setItems(0F, font.getLineSize());
+        } else {
+            this.layoutEnd = this.r_glyphs[last];
+            this.spaceTaken.setItems(this.r_width[last], this.r_height[last]);
+        }
+
+        // calculateLines() works off the bounded text, excluding the right bound
+        if (this.r_firstVisible < 0) {
+            this.lineCount = 0;
+        } else {
+            int lastVisible = this.r_lastVisible[boundR];
+            if (lastVisible < this.r_firstVisible) {
+                this.lineCount = 1; // bounded text trims down to nothing
+            } else {
+                this.lineCount = this.r_newlines[lastVisible + 1]
+                    - this.r_newlines[this.r_firstVisible] + 1;
+            }
+        }
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Builds the prefix tables used by
+     * {@link #applyRevealTables(int)}.</p>
+     */
+    private void calculateRevealTables() {
+        String text = this.getText();
+        int length = text.length();
+        if (this.r_glyphs == null || this.r_glyphs.length < length) {
+            this.r_glyphs = new int[length];
+            this.r_width = new float[length];
+            this.r_height = new float[length];
+            this.r_newlines = new int[length + 1];
+            this.r_lastVisible = new int[length + 1];
+        }
+
+        // line tables, following String.trim() and split("\n")
+        this.r_firstVisible = -1;
+        this.r_newlines[0] = 0;
+        this.r_lastVisible[0] = -1;
+        for (int i = 0; i < length; i++) {
+            char character = text.charAt(i);
+            boolean visible = character > ' ';
+            if (visible && this.r_firstVisible < 0) {
+                this.r_firstVisible = i;
+            }
+
+            this.r_newlines[i + 1] = this.r_newlines[i] + (character == NEWLINE ? 1 : 0);
+            this.r_lastVisible[i + 1] = visible ? i : this.r_lastVisible[i];
+        }
+
+        // space and glyph tables, following calculateSpace()
+        dX = 0;
+        dY = font.getLineSize();
+        dGlyphs = 0;
+        prevSpacing = 0;
+        this.r_maxWidth = 0;
+        this.processCharacters(0, 0, (localIndex, component) -> {
+            char character = component.getText().charAt(localIndex.getB());
+
+            if (character == SPACE) { // space?
+                dX += font.getSpaceLength() * transform.getScaleX();
+                prevSpacing = 0;
+            } else if (character == NEWLINE) { // new line?
+                this.r_maxWidth = Math.max(this.r_maxWidth, dX);
+                dX = 0;
+                dY -= font.getLineSize() * transform.getScaleY();
+                prevSpacing = 0;
+            } else if (this.font.getCharacterSprite(character) != null) { // character?
+                if (prevSpacing > 0) {
+                    dX += Math.max(prevSpacing, font.getLetterSpacingLeft(character));
+                }
+
+                prevSpacing = font.getLetterSpacingRight(character);
+                dX += font.getAdvance(character);
+                dGlyphs++;
+            }
+
+            int index = localIndex.getA() + localIndex.getB();
+            this.r_glyphs[index] = dGlyphs;
+            this.r_width[index] = Math.max(this.r_maxWidth, dX);
+            this.r_height[index] = dY;
+        });
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Lays out the glyphs within the string bounds, or
+     * the whole text, with no transform or style applied,
+     * for {@link #render(float, float)} to draw.</p>
+     */
+    private void calculateLayout(boolean full) {
+        this.layout.clear();
+        this.mesh.invalidate();
+        this.m_componentStyles.clear();
+        dX = 0;
+        dY = 0;
+        dLine = 0;
+        prevSpacing = 0;
+
+        int boundL = full ? 0 : this.stringBounds.getA();
+        int boundR = full ? 0 : this.stringBounds.getB();
+        this.processCharacters(boundL, boundR, (localIndex, component) -> {
+            char character = component.getText().charAt(localIndex.getB());
+
+            if (character == SPACE) { // space?
+                dX += font.getSpaceLength();
+                prevSpacing = 0;
+            } else if (character == NEWLINE) { // new line?
+                dX = 0;
+                dY -= font.getLineSize();
+                dLine++;
+                prevSpacing = 0;
+            } else { // character?
+                Sprite sprite = this.font.getCharacterSprite(character);
+
+                if (sprite != null) { // character actually exists?
+                    // process character right vs left spacing from previous character
+                    float lead = 0;
+                    if (prevSpacing > 0) {
+                        lead = Math.max(prevSpacing, font.getLetterSpacingLeft(character));
+                    }
+
+                    dX += lead;
+                    float advance = font.getAdvance(character);
+                    int glyph = this.layout.size;
+                    this.layout.add(sprite, component, this.getSingleStyles(component),
+                        character, localIndex.getA() + localIndex.getB(), dLine, dX, dY, lead,
+                        advance);
+
+                    Array<TextStyle> styles = component.getStyles();
+                    for (int i = 0; i < styles.size; i++) {
+                        if (styles.get(i).isBatched()) {
+                            this.layout.addBatchedGlyph(styles.get(i), glyph);
+                        }
+                    }
+
+                    // save this character's right-spacing for the next character
+                    prevSpacing = font.getLetterSpacingRight(character);
+                    // offset the marker
+                    dX += advance;
+                }
+            }
+        });
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Writes the quad of an unstyled glyph into the
+     * pending glyph run, skipping the transform copy and
+     * region flipping done by {@link Sprite#render(float,
+     * float, Transform)}.</p>
+     * 
+     * <p>The run is submitted once full, or once a glyph
+     * from another texture is added.</p>
+     */
+    private void addRunGlyph(MultiRenderer renderer, Sprite sprite, float x, float y,
+        float scaleX, float scaleY, boolean flipX, boolean flipY, float color) {
+        Texture texture = sprite.getTextureRegion().getTexture();
+        if (this.m_runTexture != texture || this.m_runCount >= RUN_SIZE) {
+            this.flushRun(renderer);
+            this.m_runTexture = texture;
+        }
+
+        TextMesh.putVertices(this.m_runVertices, this.m_runCount++ * QUAD_SIZE, sprite, x, y,
+            scaleX, scaleY, flipX, flipY, color);
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Submits the pending glyph run, if any.</p>
+     */
+    private void flushRun(MultiRenderer renderer) {
+        if (this.m_runCount > 0) {
+            renderer.draw(this.m_runTexture, this.m_runVertices, 0,
+                this.m_runCount * QUAD_SIZE);
+            this.m_runCount = 0;
+        }
+
+        this.m_runTexture = null;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns the styles of the provided component that
+     * are not batched, and thus applied to each of its
+     * glyphs individually.</p>
+     */
+    private TextStyle[] getSingleStyles(TextComponent component) {
+        TextStyle[] styles = this.m_componentStyles.get(component);
+        if (styles == null) {
+            Array<TextStyle> single = new Array<>(true, component.getStyles().size, TextStyle.class);
+            for (TextStyle style : component.getStyles()) {
+                if (!style.isBatched()) {
+                    single.add(style);
+                }
+            }
+
+            styles = single.size > 0 ? single.toArray() : TextLayout.NO_STYLES;
+            this.m_componentStyles.put(component, styles);
+        }
+
+        return styles;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Applies every batched style of the laid out
+     * glyphs, once per style, collecting the results for
+     * {@link #render(float, float)} to pick up.</p>
+     */
+    private void applyBatchedStyles(long time, int textLength) {
+        TextLayout layout = this.layout;
+        BatchMeta glyphMeta = this.m_glyphMeta;
+        BatchMeta styleMeta = this.m_styleMeta;
+        glyphMeta.setSize(layout.size);
+        glyphMeta.reset();
+
+        for (int i = 0; i < layout.batchedStyles.size; i++) {
+            IntArray glyphs = layout.batchedGlyphs.get(i);
+            styleMeta.setSize(glyphs.size);
+            for (int j = 0; j < glyphs.size; j++) {
+                int glyph = glyphs.get(j);
+                styleMeta.characters[j] = layout.characters[glyph];
+                styleMeta.indices[j] = layout.indices[glyph];
+                styleMeta.offX[j] = glyphMeta.offX[glyph];
+                styleMeta.offY[j] = glyphMeta.offY[glyph];
+                styleMeta.scaleX[j] = glyphMeta.scaleX[glyph];
+                styleMeta.scaleY[j] = glyphMeta.scaleY[glyph];
+                styleMeta.rotation[j] = glyphMeta.rotation[glyph];
+            }
+
+            layout.batchedStyles.get(i).applyBatch(styleMeta, time, textLength);
+            for (int j = 0; j < glyphs.size; j++) {
+                int glyph = glyphs.get(j);
+                glyphMeta.offX[glyph] = styleMeta.offX[j];
+                glyphMeta.offY[glyph] = styleMeta.offY[j];
+                glyphMeta.scaleX[glyph] = styleMeta.scaleX[j];
+                glyphMeta.scaleY[glyph] = styleMeta.scaleY[j];
+                glyphMeta.rotation[glyph] = styleMeta.rotation[j];
+            }
+        }
     }
 
     // method-specific variables cuz stupid scope rules
@@ -620,17 +1028,17 @@ public class Text extends TextComponent implements Renderable {
 
                 if (sprite != null) { // character actually exists?
                     // grab the stuff we're using
-                    Pair<Float> letterSpacing = font.getLetterSpacing(character);
+                    float spacingLeft = font.getLetterSpacingLeft(character);
 
                     // process character right vs left spacing from previous character
                     if (prevSpacing > 0) {
-                        dX += Math.max(prevSpacing, letterSpacing.getA());
+                        dX += Math.max(prevSpacing, spacingLeft);
                     }
 
                     // save this character's right-spacing for the next character
-                    prevSpacing = letterSpacing.getB();
+                    prevSpacing = font.getLetterSpacingRight(character);
                     // offset the marker
-                    dX += sprite.getTextureRegion().getRegionWidth();
+                    dX += font.getAdvance(character);
                 }
             }
         });
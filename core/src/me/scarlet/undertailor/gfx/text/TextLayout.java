@@ -0,0 +1,191 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Tellerva, Marc Lawrence
+ *
+ * Permission is hereby granted, free of charge, to any
+ * person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the
+ * Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge,
+ * publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice
+ * shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package me.scarlet.undertailor.gfx.text;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import me.scarlet.undertailor.gfx.spritesheet.Sprite;
+
+import java.util.Arrays;
+
+/**
+ * Pre-computed glyph layout of a {@link Text}.
+ * 
+ * <p>Holds the position of every drawn glyph within the
+ * string bounds of a Text as primitive arrays, so the text
+ * can be drawn without walking its components and
+ * recomputing spacing every frame.</p>
+ * 
+ * <p>Positions are stored in font units relative to the
+ * text's origin, with no transform or style applied. As
+ * the layout only depends on a transform through its
+ * scale, by which it is simply multiplied, transform
+ * changes do not require the layout to be rebuilt.</p>
+ */
+class TextLayout {
+
+    static final TextStyle[] NO_STYLES = new TextStyle[0];
+
+    /** The count of glyphs in the layout. */
+    int size;
+    /** The sprite of each glyph. */
+    Sprite[] sprites;
+    /** The component owning each glyph. */
+    TextComponent[] components;
+    /** The character of each glyph. */
+    char[] characters;
+    /** The index of each glyph within the full text. */
+    int[] indices;
+    /** The line each glyph resides on. */
+    int[] lines;
+    /** The position of each glyph, after its spacing. */
+    float[] x, y;
+    /** The letter spacing placed before each glyph. */
+    float[] leads;
+    /** The advance width of each glyph. */
+    float[] advances;
+    /** The styles applied to each glyph individually. */
+    TextStyle[][] styles;
+    /** Whether each glyph's component has no styles at all. */
+    boolean[] plain;
+
+    /** The first glyph whose component has styles, if any. */
+    int firstStyled;
+
+    /** The batched styles applied to the glyphs. */
+    Array<TextStyle> batchedStyles;
+    /** The glyphs decorated by each batched style. */
+    Array<IntArray> batchedGlyphs;
+
+    TextLayout() {
+        this.size = 0;
+        this.firstStyled = Integer.MAX_VALUE;
+        this.batchedStyles = new Array<>(true, 4);
+        this.batchedGlyphs = new Array<>(true, 4);
+        this.ensureCapacity(16);
+    }
+
+    /**
+     * Clears this layout.
+     */
+    void clear() {
+        Arrays.fill(this.sprites, 0, this.size, null);
+        Arrays.fill(this.components, 0, this.size, null);
+        Arrays.fill(this.styles, 0, this.size, null);
+        this.batchedStyles.clear();
+        this.firstStyled = Integer.MAX_VALUE;
+        this.size = 0;
+    }
+
+    /**
+     * Appends a glyph to this layout.
+     */
+    void add(Sprite sprite, TextComponent component, TextStyle[] styles, char character,
+        int index, int line, float x, float y, float lead, float advance) {
+        this.ensureCapacity(this.size + 1);
+
+        int i = this.size++;
+        this.sprites[i] = sprite;
+        this.components[i] = component;
+        this.characters[i] = character;
+        this.indices[i] = index;
+        this.lines[i] = line;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.leads[i] = lead;
+        this.advances[i] = advance;
+        this.styles[i] = styles;
+        this.plain[i] = component.getStyles().size == 0;
+        if (!this.plain[i] && this.firstStyled > i) {
+            this.firstStyled = i;
+        }
+    }
+
+    /**
+     * Marks the glyph at the given position as decorated by
+     * the provided batched style.
+     */
+    void addBatchedGlyph(TextStyle style, int glyph) {
+        int index = this.batchedStyles.indexOf(style, true);
+        if (index < 0) {
+            index = this.batchedStyles.size;
+            this.batchedStyles.add(style);
+            if (this.batchedGlyphs.size <= index) {
+                this.batchedGlyphs.add(new IntArray());
+            }
+
+            this.batchedGlyphs.get(index).clear();
+        }
+
+        this.batchedGlyphs.get(index).add(glyph);
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Grows the arrays of this layout to hold at least
+     * the given count of glyphs.</p>
+     */
+    private void ensureCapacity(int capacity) {
+        if (this.sprites != null && this.sprites.length >= capacity) {
+            return;
+        }
+
+        int newCapacity = this.sprites == null ? capacity
+            : Math.max(capacity, this.sprites.length * 2);
+        if (this.sprites == null) {
+            this.sprites = new Sprite[newCapacity];
+            this.components = new TextComponent[newCapacity];
+            this.characters = new char[newCapacity];
+            this.indices = new int[newCapacity];
+            this.lines = new int[newCapacity];
+            this.x = new float[newCapacity];
+            this.y = new float[newCapacity];
+            this.leads = new float[newCapacity];
+            this.advances = new float[newCapacity];
+            this.styles = new TextStyle[newCapacity][];
+            this.plain = new boolean[newCapacity];
+        } else {
+            this.sprites = Arrays.copyOf(this.sprites, newCapacity);
+            this.components = Arrays.copyOf(this.components, newCapacity);
+            this.characters = Arrays.copyOf(this.characters, newCapacity);
+            this.indices = Arrays.copyOf(this.indices, newCapacity);
+            this.lines = Arrays.copyOf(this.lines, newCapacity);
+            this.x = Arrays.copyOf(this.x, newCapacity);
+            this.y = Arrays.copyOf(this.y, newCapacity);
+            this.leads = Arrays.copyOf(this.leads, newCapacity);
+            this.advances = Arrays.copyOf(this.advances, newCapacity);
+            this.styles = Arrays.copyOf(this.styles, newCapacity);
+            this.plain = Arrays.copyOf(this.plain, newCapacity);
+        }
+    }
+}
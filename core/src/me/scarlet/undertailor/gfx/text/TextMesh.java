@@ -0,0 +1,262 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Tellerva, Marc Lawrence
+ *
+ * Permission is hereby granted, free of charge, to any
+ * person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the
+ * Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge,
+ * publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice
+ * shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package me.scarlet.undertailor.gfx.text;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+
+import me.scarlet.undertailor.gfx.MultiRenderer;
+import me.scarlet.undertailor.gfx.spritesheet.Sprite;
+import me.scarlet.undertailor.gfx.spritesheet.Sprite.SpriteMeta;
+
+/**
+ * The glyphs of a static {@link Text}, baked in advance.
+ * 
+ * <p>Text with no styles and no rotation looks the same
+ * every frame. Its glyphs are baked into a vertex buffer in
+ * the format used by libGDX's SpriteBatch, grouped into
+ * runs of consecutive glyphs sharing a texture, and
+ * replayed with a single draw call per run.</p>
+ * 
+ * <p>The bake is kept until the layout of the text is
+ * rebuilt, or until the text is drawn at another position,
+ * with another scale or flip, or with different component
+ * colors.</p>
+ */
+class TextMesh {
+
+    static final int SPRITE_SIZE = 20;
+
+    boolean baked;
+    int bakedEnd;
+    float bakedX;
+    float bakedY;
+    float bakedScaleX;
+    float bakedScaleY;
+    boolean bakedFlipX;
+    boolean bakedFlipY;
+    float[] bakedColors;
+
+    float[] vertices;
+    int vertexCount;
+
+    int runCount;
+    int[] runEnds;
+    Texture[] runTextures;
+
+    TextMesh() {
+        this.baked = false;
+        this.bakedColors = new float[0];
+        this.runEnds = new int[1];
+        this.runTextures = new Texture[1];
+    }
+
+    /**
+     * Drops the baked vertices of this {@link TextMesh},
+     * forcing them to be rebuilt the next time the text is
+     * rendered.
+     */
+    void invalidate() {
+        this.baked = false;
+        this.vertices = null;
+        this.runTextures = new Texture[1];
+    }
+
+    /**
+     * Checks whether or not the baked vertices of this
+     * {@link TextMesh} can be replayed for a text drawn with
+     * the given parameters.
+     */
+    boolean isValid(Array<TextComponent> components, int end, float x, float y, float scaleX,
+        float scaleY, boolean flipX, boolean flipY) {
+        if (!this.baked || this.bakedEnd != end || this.bakedX != x || this.bakedY != y
+            || this.bakedScaleX != scaleX || this.bakedScaleY != scaleY
+            || this.bakedFlipX != flipX || this.bakedFlipY != flipY
+            || this.bakedColors.length != components.size) {
+            return false;
+        }
+
+        for (int i = 0; i < components.size; i++) {
+            if (this.bakedColors[i] != components.get(i).getColor().toFloatBits()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Bakes the first glyphs of the provided layout into
+     * this {@link TextMesh}.
+     * 
+     * <p>The glyphs are expected to be unstyled, and thus
+     * placed exactly at their laid out position.</p>
+     * 
+     * @param layout the layout of the text
+     * @param components the components of the text
+     * @param end the count of glyphs to bake
+     */
+    void bake(TextLayout layout, Array<TextComponent> components, int end, float x, float y,
+        float scaleX, float scaleY, boolean flipX, boolean flipY) {
+        if (this.vertices == null || this.vertices.length < end * SPRITE_SIZE) {
+            this.vertices = new float[end * SPRITE_SIZE];
+        }
+
+        this.vertexCount = 0;
+        this.runCount = 0;
+        TextComponent component = null;
+        float color = 0;
+        for (int i = 0; i < end; i++) {
+            if (layout.components[i] != component) {
+                component = layout.components[i];
+                color = component.getColor().toFloatBits();
+            }
+
+            Texture texture = layout.sprites[i].getTextureRegion().getTexture();
+            if (this.runCount == 0 || this.runTextures[this.runCount - 1] != texture) {
+                this.addRun(texture);
+            }
+
+            TextMesh.putVertices(this.vertices, this.vertexCount, layout.sprites[i],
+                x + (layout.x[i] * scaleX), y + (layout.y[i] * scaleY), scaleX, scaleY, flipX,
+                flipY, color);
+            this.vertexCount += SPRITE_SIZE;
+            this.runEnds[this.runCount - 1] = this.vertexCount;
+        }
+
+        if (this.bakedColors.length != components.size) {
+            this.bakedColors = new float[components.size];
+        }
+
+        for (int i = 0; i < components.size; i++) {
+            this.bakedColors[i] = components.get(i).getColor().toFloatBits();
+        }
+
+        this.bakedEnd = end;
+        this.bakedX = x;
+        this.bakedY = y;
+        this.bakedScaleX = scaleX;
+        this.bakedScaleY = scaleY;
+        this.bakedFlipX = flipX;
+        this.bakedFlipY = flipY;
+        this.baked = true;
+    }
+
+    /**
+     * Replays the baked vertices of this {@link TextMesh}.
+     */
+    void render(MultiRenderer renderer) {
+        int start = 0;
+        for (int i = 0; i < this.runCount; i++) {
+            renderer.draw(this.runTextures[i], this.vertices, start, this.runEnds[i] - start);
+            start = this.runEnds[i];
+        }
+    }
+
+    /**
+     * Returns the byte count used by the baked vertices of
+     * this {@link TextMesh}.
+     */
+    int getVertexMemory() {
+        return this.vertices == null ? 0 : this.vertices.length * 4;
+    }
+
+    // ---------------- internal methods ----------------
+
+    /**
+     * Internal method.
+     * 
+     * <p>Starts a new run of vertices drawn with the given
+     * texture.</p>
+     */
+    private void addRun(Texture texture) {
+        if (this.runCount == this.runTextures.length) {
+            Texture[] textures = new Texture[this.runCount * 2];
+            int[] ends = new int[this.runCount * 2];
+            System.arraycopy(this.runTextures, 0, textures, 0, this.runCount);
+            System.arraycopy(this.runEnds, 0, ends, 0, this.runCount);
+            this.runTextures = textures;
+            this.runEnds = ends;
+        }
+
+        this.runTextures[this.runCount] = texture;
+        this.runEnds[this.runCount] = this.vertexCount;
+        this.runCount++;
+    }
+
+    /**
+     * Writes the vertices of the provided glyph sprite drawn
+     * at the given position, as SpriteBatch would with no
+     * rotation.
+     * 
+     * <p>Flipping is done by swapping texture coordinates,
+     * rather than flipping the sprite's region.</p>
+     */
+    static void putVertices(float[] vertices, int offset, Sprite sprite, float x, float y,
+        float scaleX, float scaleY, boolean flipX, boolean flipY, float color) {
+        TextureRegion region = sprite.getTextureRegion();
+        SpriteMeta meta = sprite.getMeta();
+        float x1 = x + ((meta.offX - meta.originX) * scaleX);
+        float y1 = y + ((meta.offY - meta.originY) * scaleY);
+        float x2 = x1 + (region.getRegionWidth() * scaleX);
+        float y2 = y1 + (region.getRegionHeight() * scaleY);
+        float u = flipX ? region.getU2() : region.getU();
+        float u2 = flipX ? region.getU() : region.getU2();
+        float v = flipY ? region.getV2() : region.getV();
+        float v2 = flipY ? region.getV() : region.getV2();
+
+        int idx = offset;
+        vertices[idx++] = x1;
+        vertices[idx++] = y1;
+        vertices[idx++] = color;
+        vertices[idx++] = u;
+        vertices[idx++] = v2;
+
+        vertices[idx++] = x1;
+        vertices[idx++] = y2;
+        vertices[idx++] = color;
+        vertices[idx++] = u;
+        vertices[idx++] = v;
+
+        vertices[idx++] = x2;
+        vertices[idx++] = y2;
+        vertices[idx++] = color;
+        vertices[idx++] = u2;
+        vertices[idx++] = v;
+
+        vertices[idx++] = x2;
+        vertices[idx++] = y1;
+        vertices[idx++] = color;
+        vertices[idx++] = u2;
+        vertices[idx] = v2;
+    }
+}
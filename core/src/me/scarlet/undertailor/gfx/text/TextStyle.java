@@ -30,6 +30,8 @@
 
 package me.scarlet.undertailor.gfx.text;
 
+import java.util.Arrays;
+
 /**
  * Skeleton implementation for objects used to decorate the
  * appearance of characters within {@link TextComponent}s.
@@ -61,6 +63,73 @@ public interface TextStyle {
         }
     }
 
+    /**
+     * Data bag containing the visual modifications to a
+     * batch of characters of a {@link Text}, used by
+     * batched {@link TextStyle}s.
+     * 
+     * <p>Every array holds one entry per character, only
+     * the first {@link #size} entries being valid. Arrays
+     * are reused between batches and may be larger than
+     * needed.</p>
+     */
+    public static class BatchMeta {
+
+        /** The count of characters in the batch. */
+        public int size;
+        /** The characters in the batch. */
+        public char[] characters;
+        /** The index of each character in its Text. */
+        public int[] indices;
+        public float[] offX, offY, scaleX, scaleY, rotation;
+
+        public BatchMeta() {
+            this.size = 0;
+            this.characters = new char[0];
+            this.indices = new int[0];
+            this.offX = new float[0];
+            this.offY = new float[0];
+            this.scaleX = new float[0];
+            this.scaleY = new float[0];
+            this.rotation = new float[0];
+        }
+
+        /**
+         * Resizes this {@link BatchMeta} to hold the given
+         * count of characters, growing its arrays if
+         * needed. The values of the arrays are not reset.
+         * 
+         * @param size the new count of characters
+         */
+        public void setSize(int size) {
+            if (this.characters.length < size) {
+                int capacity = Math.max(size, this.characters.length * 2);
+                this.characters = Arrays.copyOf(this.characters, capacity);
+                this.indices = Arrays.copyOf(this.indices, capacity);
+                this.offX = Arrays.copyOf(this.offX, capacity);
+                this.offY = Arrays.copyOf(this.offY, capacity);
+                this.scaleX = Arrays.copyOf(this.scaleX, capacity);
+                this.scaleY = Arrays.copyOf(this.scaleY, capacity);
+                this.rotation = Arrays.copyOf(this.rotation, capacity);
+            }
+
+            this.size = size;
+        }
+
+        /**
+         * Resets the visual modifications of every
+         * character in this {@link BatchMeta} to their
+         * defaults.
+         */
+        public void reset() {
+            Arrays.fill(this.offX, 0, this.size, 0F);
+            Arrays.fill(this.offY, 0, this.size, 0F);
+            Arrays.fill(this.scaleX, 0, this.size, 1F);
+            Arrays.fill(this.scaleY, 0, this.size, 1F);
+            Arrays.fill(this.rotation, 0, this.size, 0F);
+        }
+    }
+
     /**
      * Returns the name of this {@link TextStyle}.
      * 
@@ -96,4 +165,55 @@ public interface TextStyle {
      *        the owning component belongs to
      */
     void apply(DisplayMeta meta, long time, char character, int charIndex, int textLength);
+
+    /**
+     * Returns whether or not this {@link TextStyle}
+     * implements {@link #applyBatch(BatchMeta, long, int)}.
+     * 
+     * <p>Batched styles are applied to every character of a
+     * {@link Text} they decorate in a single call, instead
+     * of once per character. By default, returns false.</p>
+     * 
+     * @return if this TextStyle can be applied in batches
+     */
+    default boolean isBatched() {
+        return false;
+    }
+
+    /**
+     * Modifies a {@link BatchMeta} instance in order to
+     * provide visual effects to a batch of characters of a
+     * {@link Text}.
+     * 
+     * <p>Only called if {@link #isBatched()} returns true.
+     * The same considerations as with
+     * {@link #apply(DisplayMeta, long, char, int, int)}
+     * apply; the BatchMeta is to be modified, not
+     * overwritten.</p>
+     * 
+     * <p>By default, applies this style to each character
+     * in turn.</p>
+     * 
+     * @param meta the BatchMeta instance to modify
+     * @param time an unspecified time value, in
+     *        milliseconds
+     * @param textLength the length of the entire Text that
+     *        the characters belong to
+     */
+    default void applyBatch(BatchMeta meta, long time, int textLength) {
+        DisplayMeta single = new DisplayMeta();
+        for (int i = 0; i < meta.size; i++) {
+            single.offX = meta.offX[i];
+            single.offY = meta.offY[i];
+            single.scaleX = meta.scaleX[i];
+            single.scaleY = meta.scaleY[i];
+            single.rotation = meta.rotation[i];
+            this.apply(single, time, meta.characters[i], meta.indices[i], textLength);
+            meta.offX[i] = single.offX;
+            meta.offY[i] = single.offY;
+            meta.scaleX[i] = single.scaleX;
+            meta.scaleY[i] = single.scaleY;
+            meta.rotation[i] = single.rotation;
+        }
+    }
 }
@@ -31,15 +31,40 @@
 package me.scarlet.undertailor.gfx.text.parse;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Holds a set of {@link TextPiece}s generated from a
  * parameterized string.
  * 
+ * <p>Strings parsed through {@link #of(String)} are
+ * cached. Every call returns its own copy of the cached
+ * pieces, which callers are free to modify.</p>
+ * 
  * @author FerusGrim
  */
 public class ParsedText {
 
+    /** The maximum count of parsed strings kept cached. */
+    public static final int CACHE_SIZE = 256;
+
+    private static final Map<String, ParsedText> CACHE =
+        new LinkedHashMap<String, ParsedText>(CACHE_SIZE, 0.75F, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParsedText> eldest) {
+                return this.size() > CACHE_SIZE;
+            }
+        };
+
+    private static long hits;
+    private static long misses;
+
     private final Array<TextPiece> pieces;
 
     public ParsedText(Array<TextPiece> pieces) {
@@ -50,14 +75,83 @@ public class ParsedText {
         return this.pieces;
     }
 
+    /**
+     * Internal method.
+     * 
+     * <p>Returns a copy of this {@link ParsedText}, holding
+     * its own pieces and parameter maps.</p>
+     */
+    private ParsedText copy() {
+        Array<TextPiece> pieces = new Array<>(true, this.pieces.size);
+        for (int i = 0; i < this.pieces.size; i++) {
+            TextPiece piece = this.pieces.get(i);
+            pieces.add(TextPiece.of(new ObjectMap<>(piece.getParams()), piece.getMessage()));
+        }
+
+        return new ParsedText(pieces);
+    }
+
     /**
      * Takes an unadulterated string and properly formats it
      * into a valid {@link ParsedText} object.
+     * 
+     * <p>The most recently used strings are cached; parsing
+     * the same string again copies the cached pieces
+     * instead of scanning the string.</p>
      *
      * @param input the unedited input
      * @return the valid ParsedText object
      */
     public static ParsedText of(String input) {
-        return new ParsedText(TextParser.parse(input));
+        ParsedText parsed;
+        synchronized (CACHE) {
+            parsed = CACHE.get(input);
+            if (parsed != null) {
+                hits++;
+            } else {
+                misses++;
+                parsed = new ParsedText(TextParser.parse(input));
+                CACHE.put(input, parsed);
+            }
+        }
+
+        // cached instances never leave the cache, so they can be copied unlocked
+        return parsed.copy();
+    }
+
+    /**
+     * Returns the count of calls to {@link #of(String)}
+     * answered by the cache.
+     * 
+     * @return the cache hit count
+     */
+    public static long getCacheHits() {
+        synchronized (CACHE) {
+            return hits;
+        }
+    }
+
+    /**
+     * Returns the count of calls to {@link #of(String)}
+     * that had to parse their input.
+     * 
+     * @return the cache miss count
+     */
+    public static long getCacheMisses() {
+        synchronized (CACHE) {
+            return misses;
+        }
+    }
+
+    /**
+     * Clears the cache of parsed strings and its
+     * counters.
+     */
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+            hits = 0;
+            misses = 0;
+        }
     }
 }
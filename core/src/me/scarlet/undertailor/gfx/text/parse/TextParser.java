@@ -33,77 +33,194 @@ package me.scarlet.undertailor.gfx.text.parse;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ObjectMap;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Class responsible for scanning parameterized strings to
  * generate {@link TextPiece}s and {@link ParsedText}s.
  * 
+ * <p>Parameter blocks take the form <code>[KEY=value]</code>
+ * and may be chained, as in
+ * <code>[KEY=value][KEY2=value2]</code>. A block's brackets
+ * are ignored if escaped by a preceding backslash, and a
+ * block's contents may not hold brackets or new lines.</p>
+ * 
+ * <p>Parameters whose key is not a {@link TextParam} are
+ * ignored. This includes blocks with an empty key, such as
+ * <code>[=]</code> or <code>[=value]</code>.</p>
+ * 
+ * <p>Strings are scanned in a single pass, without the use
+ * of regular expressions.</p>
+ * 
  * @author FerusGrim
  */
 public final class TextParser {
 
-    private static final Pattern CATCH_PATTERN =
-        Pattern.compile("((?<!\\\\)\\[([^\\n\\[\\]]+?)(?<!\\\\)\\])+");
-
     public static Array<TextPiece> parse(String input) {
         Array<TextPiece> pieces = new Array<>(true, 16);
 
         ObjectMap<TextParam, String> current = new ObjectMap<>();
-        for (String piece : separate(input)) {
-            if (CATCH_PATTERN.matcher(piece).matches()) {
-                current.putAll(parseMatches(piece));
-            } else {
-                pieces.add(TextPiece.of(new ObjectMap<>(current), piece));
+        int textStart = 0;
+        int index = 0;
+        while (index < input.length()) {
+            int end = matchBlocks(input, index);
+            if (end < 0) {
+                index++;
+                continue;
             }
+
+            if (index > textStart) {
+                pieces.add(TextPiece.of(new ObjectMap<>(current), input.substring(textStart, index)));
+            }
+
+            parseBlocks(input, index, end, current);
+            index = end;
+            textStart = end;
         }
 
+        pieces.add(TextPiece.of(new ObjectMap<>(current), input.substring(textStart)));
         return pieces;
     }
 
     public static Array<String> separate(String input) {
         Array<String> results = new Array<>(true, 16);
-        Matcher regex = CATCH_PATTERN.matcher(input);
-        int lastIndex = 0;
+        int textStart = 0;
+        int index = 0;
+        while (index < input.length()) {
+            int end = matchBlocks(input, index);
+            if (end < 0) {
+                index++;
+                continue;
+            }
 
-        while (regex.find()) {
-            if (!input.substring(lastIndex, regex.start()).isEmpty()) {
-                results.add(input.substring(lastIndex, regex.start()));
+            if (index > textStart) {
+                results.add(input.substring(textStart, index));
             }
 
-            results.add(regex.group());
-            lastIndex = regex.end();
+            results.add(input.substring(index, end));
+            index = end;
+            textStart = end;
         }
 
-        results.add(input.substring(lastIndex));
+        results.add(input.substring(textStart));
         return results;
     }
 
     public static ObjectMap<TextParam, String> parseMatches(String input) {
         ObjectMap<TextParam, String> params = new ObjectMap<>();
-        Matcher regex = CATCH_PATTERN.matcher(input);
+        int index = 0;
+        while (index < input.length()) {
+            int end = matchBlocks(input, index);
+            if (end < 0) {
+                index++;
+                continue;
+            }
 
-        while (regex.find()) {
-            String[] splits = regex.group().split("(\\]\\[)");
-            for (String param : splits) {
-                String[] array = param.replaceAll("[\\[\\]]", "").split("=");
+            parseBlocks(input, index, end, params);
+            index = end;
+        }
 
-                TextParam textParam = TextParam.of(array[0]);
-                if (textParam == TextParam.UNDEFINED) {
-                    continue;
-                }
+        return params;
+    }
 
-                String value;
-                if (array.length < 2 || array[1].isEmpty()) {
-                    value = "";
-                } else {
-                    value = array[1];
+    // ---------------- internal ----------------
+
+    /**
+     * Internal method.
+     * 
+     * <p>Matches a chain of one or more parameter blocks
+     * starting at the given index.</p>
+     * 
+     * @return the index after the last matched block, or -1
+     *         if no block starts at the index
+     */
+    private static int matchBlocks(String input, int start) {
+        int end = matchBlock(input, start);
+        if (end < 0) {
+            return -1;
+        }
+
+        int next = matchBlock(input, end);
+        while (next > 0) {
+            end = next;
+            next = matchBlock(input, end);
+        }
+
+        return end;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Matches a single, unescaped parameter block
+     * starting at the given index.</p>
+     * 
+     * @return the index after the block, or -1 if no block
+     *         starts at the index
+     */
+    private static int matchBlock(String input, int start) {
+        int length = input.length();
+        if (start >= length || input.charAt(start) != '[') {
+            return -1;
+        }
+
+        if (start > 0 && input.charAt(start - 1) == '\\') {
+            return -1; // escaped
+        }
+
+        int index = start + 1;
+        while (index < length) {
+            char c = input.charAt(index);
+            if (c == '\n' || c == '[' || c == ']') {
+                break;
+            }
+
+            index++;
+        }
+
+        if (index == start + 1 || index >= length || input.charAt(index) != ']'
+            || input.charAt(index - 1) == '\\') {
+            return -1; // empty, unclosed, or escaped closing bracket
+        }
+
+        return index + 1;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Reads the parameters of a chain of blocks spanning
+     * the given range into the provided map. Parameters
+     * whose key is not a {@link TextParam} are ignored.</p>
+     * 
+     * <p>The value of a parameter is the text between the
+     * first and second equals signs of the block, if
+     * any.</p>
+     */
+    private static void parseBlocks(String input, int start, int end,
+        ObjectMap<TextParam, String> params) {
+        int blockStart = start;
+        while (blockStart < end) {
+            int blockEnd = input.indexOf(']', blockStart); // contents never hold brackets
+            int keyEnd = input.indexOf('=', blockStart);
+            if (keyEnd < 0 || keyEnd > blockEnd) {
+                keyEnd = blockEnd;
+            }
+
+            TextParam param = TextParam.of(input.substring(blockStart + 1, keyEnd));
+            if (param != TextParam.UNDEFINED) {
+                String value = "";
+                if (keyEnd < blockEnd) {
+                    int valueEnd = input.indexOf('=', keyEnd + 1);
+                    if (valueEnd < 0 || valueEnd > blockEnd) {
+                        valueEnd = blockEnd;
+                    }
+
+                    value = input.substring(keyEnd + 1, valueEnd);
                 }
 
-                params.put(textParam, value);
+                params.put(param, value);
             }
+
+            blockStart = blockEnd + 1;
         }
-        return params;
     }
 }
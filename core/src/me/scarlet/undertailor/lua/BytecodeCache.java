@@ -0,0 +1,387 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Tellerva, Marc Lawrence
+ *
+ * Permission is hereby granted, free of charge, to any
+ * person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the
+ * Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge,
+ * publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice
+ * shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package me.scarlet.undertailor.lua;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LoadState;
+import org.luaj.vm2.Prototype;
+import org.luaj.vm2.compiler.DumpState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * On-disk cache of compiled Lua scripts.
+ * 
+ * <p>Scripts are dumped as LuaJ binary chunks into the
+ * cache directory, under a name derived from a hash of
+ * their file path, followed by a hash of their source,
+ * their chunk name and the version of LuaJ and its binary
+ * format. A script whose source is unchanged is loaded
+ * back through {@link LoadState} without being compiled
+ * again, across runs of the game.</p>
+ * 
+ * <p>Other data derived from a script, such as the classes
+ * {@link LuaJCLoader} generates for it, can be cached under
+ * the same key with an extension of its own.</p>
+ * 
+ * <p>Once a script is loaded with a changed source, the
+ * entries holding its previous source are deleted. Entries
+ * left unused for {@link #MAX_UNUSED_DAYS} days, such as
+ * those of removed scripts, are deleted on startup.</p>
+ */
+class BytecodeCache {
+
+    static final Logger log = LoggerFactory.getLogger(BytecodeCache.class);
+
+    static final String EXTENSION = ".luac";
+    static final String CLASSES_EXTENSION = ".luajc";
+    static final String TEMP_EXTENSION = ".tmp";
+    static final int MAX_UNUSED_DAYS = 30;
+    static final String VERSION_KEY = org.luaj.vm2.Lua._VERSION + "/" + LoadState.LUAC_VERSION
+        + "/" + LoadState.LUAC_FORMAT;
+
+    private File directory;
+    private ObjectMap<String, Array<String>> entries; // chunk key -> names of its entries
+    private int loaded;
+    private int compiled;
+
+    BytecodeCache(File directory) {
+        this.directory = directory;
+        this.entries = new ObjectMap<>();
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+
+        this.prune();
+    }
+
+    /**
+     * Returns the key the data cached for the provided
+     * script source is stored under, deleting the entries
+     * of the same script file that were made for another
+     * source.
+     * 
+     * @param path the path of the script file
+     * @param source the source of the script
+     * @param chunkname the chunk name of the script
+     * 
+     * @return the cache key of the script
+     */
+    String getKey(String path, byte[] source, String chunkname) {
+        String chunkKey = BytecodeCache.getChunkKey(path);
+        String key = chunkKey + "-" + BytecodeCache.getSourceKey(source, chunkname);
+
+        Array<String> names = this.entries.get(chunkKey);
+        if (names != null) {
+            for (int i = names.size - 1; i >= 0; i--) {
+                String entry = names.get(i);
+                if (!entry.startsWith(key)) {
+                    log.debug("Deleting outdated bytecode cache entry " + entry + " of " + chunkname);
+                    new File(this.directory, entry).delete();
+                    names.removeIndex(i);
+                }
+            }
+        }
+
+        return key;
+    }
+
+    /**
+     * Returns the compiled form of the provided script
+     * source, loading it from the cache if present and
+     * compiling and caching it otherwise.
+     * 
+     * @param globals the Globals to compile with
+     * @param key the cache key of the script, as returned
+     *        by {@link #getKey(String, byte[], String)}
+     * @param source the source of the script
+     * @param chunkname the chunk name of the script
+     * 
+     * @return the compiled script
+     * 
+     * @throws IOException if the source failed to compile
+     */
+    Prototype load(Globals globals, String key, byte[] source, String chunkname)
+        throws IOException {
+        byte[] cached = this.read(key, EXTENSION);
+        if (cached != null) {
+            try {
+                Prototype prototype =
+                    LoadState.undump(new ByteArrayInputStream(cached), chunkname);
+                if (prototype != null) {
+                    this.loaded++;
+                    return prototype;
+                }
+            } catch (Exception e) {
+                log.warn("Discarding unreadable bytecode cache entry " + key + EXTENSION, e);
+            }
+
+            this.delete(key, EXTENSION);
+        }
+
+        Prototype prototype = globals.compilePrototype(new ByteArrayInputStream(source), chunkname);
+        this.compiled++;
+
+        ByteArrayOutputStream dumped = new ByteArrayOutputStream(source.length);
+        DumpState.dump(prototype, dumped, false);
+        this.write(key, EXTENSION, dumped.toByteArray());
+        return prototype;
+    }
+
+    /**
+     * Returns the data cached under the provided key and
+     * extension.
+     * 
+     * @param key the cache key of the script
+     * @param extension the extension of the entry
+     * 
+     * @return the cached data, or null if there was none
+     */
+    byte[] read(String key, String extension) {
+        File file = this.getEntry(key, extension);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try {
+            byte[] data = Files.readAllBytes(file.toPath());
+            file.setLastModified(System.currentTimeMillis()); // still in use
+            return data;
+        } catch (IOException e) {
+            log.warn("Could not read bytecode cache entry " + file.getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Caches the provided data under the provided key and
+     * extension, replacing any data previously cached
+     * there.
+     * 
+     * @param key the cache key of the script
+     * @param extension the extension of the entry
+     * @param data the data to cache
+     */
+    void write(String key, String extension, byte[] data) {
+        File file = this.getEntry(key, extension);
+
+        // write to a temporary file first so no half-written entry is ever read
+        File temp = new File(this.directory, file.getName() + TEMP_EXTENSION);
+        try (OutputStream stream = new FileOutputStream(temp)) {
+            stream.write(data);
+        } catch (IOException e) {
+            log.warn("Could not write bytecode cache entry " + file.getName(), e);
+            temp.delete();
+            return;
+        }
+
+        file.delete();
+        if (!temp.renameTo(file)) {
+            temp.delete();
+        }
+    }
+
+    /**
+     * Deletes the data cached under the provided key and
+     * extension.
+     * 
+     * @param key the cache key of the script
+     * @param extension the extension of the entry
+     */
+    void delete(String key, String extension) {
+        this.getEntry(key, extension).delete();
+    }
+
+    /**
+     * Returns the count of scripts loaded from the cache.
+     * 
+     * @return the count of cache hits
+     */
+    int getLoadedCount() {
+        return this.loaded;
+    }
+
+    /**
+     * Returns the count of scripts that had to be compiled
+     * and written to the cache.
+     * 
+     * @return the count of cache misses
+     */
+    int getCompiledCount() {
+        return this.compiled;
+    }
+
+    // ---------------- internal methods ----------------
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns the cache file of the given extension
+     * stored under the provided key, registering it as an
+     * entry of its chunk.</p>
+     */
+    private File getEntry(String key, String extension) {
+        String chunkKey = key.substring(0, key.indexOf('-'));
+        String name = key + extension;
+
+        Array<String> names = this.entries.get(chunkKey);
+        if (names == null) {
+            names = new Array<>(false, 2);
+            this.entries.put(chunkKey, names);
+        }
+
+        if (!names.contains(name, false)) {
+            names.add(name);
+        }
+
+        return new File(this.directory, name);
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Indexes the entries of the cache directory by
+     * chunk, deleting leftover temporary files, entries of
+     * an unknown format and entries left unused for too
+     * long.</p>
+     */
+    private void prune() {
+        File[] files = this.directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        long oldest = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(MAX_UNUSED_DAYS);
+        int deleted = 0;
+        for (File file : files) {
+            String name = file.getName();
+            if (!BytecodeCache.isCacheFile(name)) {
+                continue; // not ours
+            }
+
+            int separator = name.indexOf('-');
+            if (name.endsWith(TEMP_EXTENSION) || separator <= 0 || file.lastModified() < oldest) {
+                if (file.delete()) {
+                    deleted++;
+                }
+
+                continue;
+            }
+
+            String chunkKey = name.substring(0, separator);
+            Array<String> names = this.entries.get(chunkKey);
+            if (names == null) {
+                names = new Array<>(false, 2);
+                this.entries.put(chunkKey, names);
+            }
+
+            names.add(name);
+        }
+
+        if (deleted > 0) {
+            log.info("Deleted " + deleted + " stale bytecode cache entries");
+        }
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns whether or not the file of the given name
+     * was written by a bytecode cache.</p>
+     */
+    private static boolean isCacheFile(String name) {
+        if (name.endsWith(TEMP_EXTENSION)) {
+            name = name.substring(0, name.length() - TEMP_EXTENSION.length());
+        }
+
+        return name.endsWith(EXTENSION) || name.endsWith(CLASSES_EXTENSION);
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns the key shared by all entries of the
+     * script file at the provided path.</p>
+     */
+    private static String getChunkKey(String path) {
+        MessageDigest digest = BytecodeCache.createDigest();
+        digest.update(path.getBytes(StandardCharsets.UTF_8));
+        return BytecodeCache.toHex(digest.digest(), 8);
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns the key of the compiled form of the
+     * provided script source.</p>
+     */
+    private static String getSourceKey(byte[] source, String chunkname) {
+        MessageDigest digest = BytecodeCache.createDigest();
+        digest.update(VERSION_KEY.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(chunkname.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(source);
+        return BytecodeCache.toHex(digest.digest(), 20);
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is unavailable", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes, int length) {
+        StringBuilder hex = new StringBuilder(length * 2);
+        for (int i = 0; i < length; i++) {
+            hex.append(Character.forDigit((bytes[i] >> 4) & 0xF, 16));
+            hex.append(Character.forDigit(bytes[i] & 0xF, 16));
+        }
+
+        return hex.toString();
+    }
+}
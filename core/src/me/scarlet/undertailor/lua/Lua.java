@@ -82,6 +82,42 @@ import me.scarlet.undertailor.util.LuaUtil;
 @SuppressWarnings("unchecked")
 public class Lua {
 
+    /**
+     * Memoized resolution of the {@link LuaObjectMeta} of
+     * each class of object, including classes with no
+     * meta at all.
+     * 
+     * <p>Replaced whenever a meta is loaded.</p>
+     */
+    private static class MetaCache {
+
+        /** Exact class matches first, then the first assignable meta. */
+        final ClassValue<LuaObjectMeta> direct = new ClassValue<LuaObjectMeta>() {
+
+            @Override
+            protected LuaObjectMeta computeValue(Class<?> type) {
+                if (Lua.PMETA.containsKey(type)) {
+                    return Lua.PMETA.get(type);
+                }
+
+                if (Lua.META.containsKey(type)) {
+                    return Lua.META.get(type);
+                }
+
+                return Lua.scanMeta(type);
+            }
+        };
+
+        /** Only the first assignable meta. */
+        final ClassValue<LuaObjectMeta> scanned = new ClassValue<LuaObjectMeta>() {
+
+            @Override
+            protected LuaObjectMeta computeValue(Class<?> type) {
+                return Lua.scanMeta(type);
+            }
+        };
+    }
+
     static final Logger log = LoggerFactory.getLogger(Lua.class);
     static final ObjectSet<LuaObjectMeta> metas;
 
@@ -89,6 +125,9 @@ public class Lua {
     private static final ObjectMap<Class<?>, LuaObjectMeta> META;
     private static final ObjectMap<Class<?>, LuaObjectMeta> PMETA;
     private static final ObjectMap<Class<?>, LuaTable> METATABLES;
+    private static final ObjectMap<Class<?>, LuaObjectMeta> META_INSTANCES; // keyed by meta class
+    private static final ObjectMap<String, LuaObjectMeta> META_TYPENAMES;
+    private static volatile MetaCache metaCache;
     private static final ObjectMap<String, LuaFunction> GLOBAL_METATABLE;
     private static final String INVALID_TYPE_MSG = "bad argument: %s expected, got %s";
 
@@ -97,6 +136,9 @@ public class Lua {
         META = new ObjectMap<>();
         PMETA = new ObjectMap<>();
         METATABLES = new ObjectMap<>();
+        META_INSTANCES = new ObjectMap<>();
+        META_TYPENAMES = new ObjectMap<>();
+        metaCache = new MetaCache();
         GLOBAL_METATABLE = new ObjectMap<>();
         EMPTY_METATABLE = new LuaTable();
 
@@ -205,19 +247,7 @@ public class Lua {
      *         typename, or null if doesn't exist
      */
     public static LuaObjectMeta getMeta(String metaName) {
-        for (LuaObjectMeta meta : Lua.PMETA.values()) {
-            if (meta.getTypeName().equals(metaName)) {
-                return meta;
-            }
-        }
-
-        for (LuaObjectMeta meta : Lua.META.values()) {
-            if (meta.getTypeName().equals(metaName)) {
-                return meta;
-            }
-        }
-
-        return null;
+        return Lua.META_TYPENAMES.get(metaName);
     }
 
     /**
@@ -229,6 +259,10 @@ public class Lua {
      * identifying class, the meta associated with that
      * class is scanned for first.</p>
      * 
+     * <p>The meta resolved for each class of object is
+     * remembered, so only the first object of a class
+     * requires the registered metas to be scanned.</p>
+     * 
      * @param obj the Object to query with
      * 
      * @return the LuaObjectMeta associated with the
@@ -239,16 +273,10 @@ public class Lua {
             return null;
         }
 
-        Class<?> target = null;
-
+        MetaCache cache = Lua.metaCache;
         if (obj instanceof LuaImplementable
             && ((LuaImplementable<?>) obj).getPrimaryIdentifyingClass() != null) {
-            target = ((LuaImplementable<?>) obj).getPrimaryIdentifyingClass();
-        } else {
-            target = obj.getClass();
-        }
-
-        do {
+            Class<?> target = ((LuaImplementable<?>) obj).getPrimaryIdentifyingClass();
             if (Lua.PMETA.containsKey(target)) {
                 return Lua.PMETA.get(target);
             }
@@ -257,26 +285,10 @@ public class Lua {
                 return Lua.META.get(target);
             }
 
-            for (LuaObjectMeta meta : Lua.PMETA.values()) {
-                if (meta.getTargetObjectClass().isInstance(obj)) {
-                    return meta;
-                }
-            }
-
-            for (LuaObjectMeta meta : Lua.META.values()) {
-                if (meta.getTargetObjectClass().isInstance(obj)) {
-                    return meta;
-                }
-            }
-
-            if (target != obj.getClass()) {
-                target = obj.getClass();
-            } else {
-                target = null;
-            }
-        } while (target != null);
+            return cache.scanned.get(obj.getClass());
+        }
 
-        return null;
+        return cache.direct.get(obj.getClass());
     }
 
     /**
@@ -290,6 +302,12 @@ public class Lua {
      * metatable had already been generated, that metatable
      * is returned.</p>
      * 
+     * <p>The returned metatable is shared by every object of
+     * the same class, and must not be modified. Objects
+     * needing to modify their metatable should copy it
+     * on the first write, as done by
+     * {@link LuaObjectValue#getOwnMetatable()}.</p>
+     * 
      * <p>It is possible for functions within each object
      * meta to override each other when this method
      * generates a new metatable.</p>
@@ -342,7 +360,7 @@ public class Lua {
         }
 
         if(copyTable != null && copyTable != Lua.EMPTY_METATABLE) {
-            return LuaUtil.copyTable(copyTable, true);
+            return copyTable;
         }
 
         return null;
@@ -422,27 +440,46 @@ public class Lua {
         } else {
             Lua.META.put(metaInstance.getTargetObjectClass(), metaInstance);
         }
+
+        Lua.META_INSTANCES.put(metaInstance.getClass(), metaInstance);
+        LuaObjectMeta named = Lua.META_TYPENAMES.get(metaInstance.getTypeName());
+        if (named == null || (metaInstance.isPrimaryType() && !named.isPrimaryType())) {
+            Lua.META_TYPENAMES.put(metaInstance.getTypeName(), metaInstance);
+        }
+
+        Lua.metaCache = new MetaCache();
     }
 
     /**
      * Internal method.
      * 
-     * <p>Returns a stored {@link LuaObjectMeta}
-     * instance.</p>
+     * <p>Returns the first stored {@link LuaObjectMeta}
+     * whose target class the given class is assignable to,
+     * primary types first.</p>
      */
-    static LuaObjectMeta getMeta(Class<? extends LuaObjectMeta> metaClass) {
-        for (LuaObjectMeta meta : Lua.PMETA.values()) {
-            if (meta.getClass() == metaClass) {
+    static LuaObjectMeta scanMeta(Class<?> type) {
+        for (LuaObjectMeta meta : new ObjectMap.Values<>(Lua.PMETA)) {
+            if (meta.getTargetObjectClass().isAssignableFrom(type)) {
                 return meta;
             }
         }
 
-        for (LuaObjectMeta meta : Lua.META.values()) {
-            if (meta.getClass() == metaClass) {
+        for (LuaObjectMeta meta : new ObjectMap.Values<>(Lua.META)) {
+            if (meta.getTargetObjectClass().isAssignableFrom(type)) {
                 return meta;
             }
         }
 
         return null;
     }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns a stored {@link LuaObjectMeta}
+     * instance.</p>
+     */
+    static LuaObjectMeta getMeta(Class<? extends LuaObjectMeta> metaClass) {
+        return Lua.META_INSTANCES.get(metaClass);
+    }
 }
@@ -30,7 +30,6 @@
 
 package me.scarlet.undertailor.lua;
 
-import org.luaj.vm2.LuaClosure;
 import org.luaj.vm2.LuaValue;
 import org.luaj.vm2.Varargs;
 
@@ -90,12 +89,17 @@ public interface LuaImplementable<T> {
      * this {@link LuaImplementable} registered a specific
      * function on its object value.
      * 
+     * <p>Only functions stored directly within the object
+     * value count; functions provided by its metatable are
+     * ignored.</p>
+     * 
      * @param funcName the name of the function
      * 
      * @return if the function exists
      */
     default boolean hasFunction(String funcName) {
-        return !this.getObjectValue().get(funcName).isnil() && this.getObjectValue().get(funcName) instanceof LuaClosure;
+        LuaObjectValue<T> value = this.getObjectValue();
+        return value != null && !value.getFunction(funcName).isnil();
     }
 
     /**
@@ -105,7 +109,7 @@ public interface LuaImplementable<T> {
      * @param funcName the name of the function
      */
     default void checkFunction(String funcName) {
-        this.getObjectValue().get(funcName).checknotnil();
+        this.getObjectValue().getFunction(funcName).checkfunction();
     }
 
     /**
@@ -126,17 +130,27 @@ public interface LuaImplementable<T> {
      * Convenience method for invoking a function held by
      * the implementing Lua script.
      * 
+     * <p>As with {@link #hasFunction(String)}, only functions
+     * stored directly within the object value are invoked.
+     * Functions only reachable through the
+     * <code>__index</code> of its metatable are not, and nil
+     * is returned instead.</p>
+     * 
      * @param funcName the name of the function to invoke
      * @param args the arguments to pass to the function
      * 
      * @return the values returned by the invoked function
      */
     default Varargs invoke(String funcName, Varargs args) {
-        if (this.getObjectValue() != null && !this.getObjectValue().get(funcName).isnil()) {
-            if (args != null && args.narg() > 0) {
-                return this.getObjectValue().get(funcName).invoke(args);
-            } else {
-                return this.getObjectValue().get(funcName).invoke();
+        LuaObjectValue<T> value = this.getObjectValue();
+        if (value != null) {
+            LuaValue function = value.getFunction(funcName);
+            if (!function.isnil()) {
+                if (args != null && args.narg() > 0) {
+                    return function.invoke(args);
+                } else {
+                    return function.invoke();
+                }
             }
         }
 
@@ -166,7 +180,19 @@ public interface LuaImplementable<T> {
      * as its first parameter.
      * 
      * <p>Functionally equivalent to, in Lua script,
-     * <code>object:funcName(args)</code>.</p>
+     * <code>object:funcName(args)</code>, except that only
+     * functions stored directly within the object value are
+     * invoked. Functions only reachable through the
+     * <code>__index</code> of its metatable are not, and nil
+     * is returned instead.</p>
+     * 
+     * <p>Callers invoking a hook without checking
+     * {@link #hasFunction(String)} first, such as the
+     * <code>onPersist</code>, <code>startCollision</code> and
+     * <code>endCollision</code> handlers of
+     * {@link me.scarlet.undertailor.lua.impl.LuaWorldObject},
+     * therefore do nothing unless the script defines the hook
+     * itself.</p>
      * 
      * @param funcName the name of the function to invoke
      * @param args the arguments to pass to the function
@@ -174,12 +200,15 @@ public interface LuaImplementable<T> {
      * @return the values returned by the invoked function
      */
     default Varargs invokeSelf(String funcName, Varargs args) {
-        if (this.getObjectValue() != null && !this.getObjectValue().get(funcName).isnil()) {
-            if (args != null && args.narg() > 0) {
-                return this.getObjectValue().get(funcName)
-                    .invoke(this.getObjectValue(), args);
-            } else {
-                return this.getObjectValue().get(funcName).invoke(this.getObjectValue());
+        LuaObjectValue<T> value = this.getObjectValue();
+        if (value != null) {
+            LuaValue function = value.getFunction(funcName);
+            if (!function.isnil()) {
+                if (args != null && args.narg() > 0) {
+                    return function.invoke(value, args);
+                } else {
+                    return function.invoke(value);
+                }
             }
         }
 
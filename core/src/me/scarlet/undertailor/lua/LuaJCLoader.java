@@ -0,0 +1,327 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Tellerva, Marc Lawrence
+ *
+ * Permission is hereby granted, free of charge, to any
+ * person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the
+ * Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge,
+ * publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice
+ * shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package me.scarlet.undertailor.lua;
+
+import com.badlogic.gdx.utils.ObjectMap;
+import org.luaj.vm2.LuaFunction;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Prototype;
+import org.luaj.vm2.luajc.JavaGen;
+import org.luaj.vm2.luajc.LuaJC;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Loads compiled Lua scripts as JVM classes generated by
+ * {@link LuaJC}, rather than as interpreted closures.
+ * 
+ * <p>Unlike LuaJC's own loader, which generates and defines
+ * a new class every time a script is loaded, the class
+ * generated for a {@link Prototype} is kept and only
+ * instantiated again when the same Prototype is loaded
+ * later.</p>
+ * 
+ * <p>If a {@link BytecodeCache} is provided, the generated
+ * classes are also written to it under the key of their
+ * script, and defined straight from there by later launches
+ * instead of being generated again.</p>
+ * 
+ * <p>Scripts LuaJC fails to generate a class for are
+ * remembered, and left to the interpreter.</p>
+ */
+class LuaJCLoader {
+
+    static final Logger log = LoggerFactory.getLogger(LuaJCLoader.class);
+
+    static final int CLASSES_FORMAT = 1;
+
+    /**
+     * A ClassLoader defining the classes generated for a
+     * single Prototype.
+     */
+    private static class GeneratedClassLoader extends ClassLoader {
+
+        private ObjectMap<String, byte[]> classes; // class name -> bytecode
+
+        GeneratedClassLoader(ObjectMap<String, byte[]> classes) {
+            super(LuaJCLoader.class.getClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytecode = this.classes.remove(name);
+            if (bytecode == null) {
+                return super.findClass(name);
+            }
+
+            return this.defineClass(name, bytecode, 0, bytecode.length);
+        }
+    }
+
+    private static final Class<?> FAILED = Void.class;
+
+    /**
+     * Checks whether or not LuaJC can be used, which
+     * requires BCEL to be present at runtime.
+     * 
+     * @return if LuaJC can generate classes
+     */
+    static boolean isAvailable() {
+        try {
+            Class.forName("org.apache.bcel.generic.ClassGen", false,
+                LuaJCLoader.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private BytecodeCache cache;
+    private Map<Prototype, Class<?>> generated;
+    private int loaded;
+    private int compiled;
+
+    LuaJCLoader(BytecodeCache cache) {
+        this.cache = cache;
+        this.generated = new WeakHashMap<>();
+    }
+
+    /**
+     * Returns a new instance of the class generated for the
+     * provided {@link Prototype}, generating it if needed.
+     * 
+     * @param prototype the Prototype to load
+     * @param chunkname the chunk name of the Prototype
+     * @param key the key the script is stored under in the
+     *        {@link BytecodeCache}, or null if it isn't
+     * @param env the environment of the loaded function
+     * 
+     * @return the loaded function, or null if LuaJC could
+     *         not generate a class for the Prototype
+     */
+    synchronized LuaFunction load(Prototype prototype, String chunkname, String key,
+        LuaValue env) {
+        Class<?> generated = this.generated.get(prototype);
+        if (generated == FAILED) {
+            return null;
+        }
+
+        try {
+            if (generated == null) {
+                generated = this.define(prototype, chunkname, key);
+                this.generated.put(prototype, generated);
+            }
+
+            LuaFunction function = (LuaFunction) generated.newInstance();
+            function.initupvalue1(env);
+            return function;
+        } catch (Exception | LinkageError e) {
+            log.warn("LuaJC could not compile " + chunkname + "; it will be interpreted", e);
+            this.generated.put(prototype, FAILED);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the count of scripts whose classes were
+     * defined from the {@link BytecodeCache}.
+     * 
+     * @return the count of cache hits
+     */
+    int getLoadedCount() {
+        return this.loaded;
+    }
+
+    /**
+     * Returns the count of scripts whose classes had to be
+     * generated.
+     * 
+     * @return the count of generated scripts
+     */
+    int getCompiledCount() {
+        return this.compiled;
+    }
+
+    // ---------------- internal methods ----------------
+
+    /**
+     * Internal method.
+     * 
+     * <p>Defines the main class generated for the provided
+     * Prototype, reading its classes from the bytecode
+     * cache if present and generating and caching them
+     * otherwise.</p>
+     */
+    private Class<?> define(Prototype prototype, String chunkname, String key)
+        throws ClassNotFoundException {
+        ObjectMap<String, byte[]> classes = new ObjectMap<>();
+        if (this.cache != null && key != null) {
+            byte[] cached = this.cache.read(key, BytecodeCache.CLASSES_EXTENSION);
+            if (cached != null) {
+                try {
+                    String classname = LuaJCLoader.readClasses(cached, classes);
+                    Class<?> defined = new GeneratedClassLoader(classes).loadClass(classname);
+                    this.loaded++;
+                    return defined;
+                } catch (IOException | LinkageError e) {
+                    log.warn("Discarding unreadable LuaJC cache entry of " + chunkname, e);
+                    this.cache.delete(key, BytecodeCache.CLASSES_EXTENSION);
+                    classes = new ObjectMap<>();
+                }
+            }
+        }
+
+        String filename = chunkname.startsWith("@") ? chunkname.substring(1) : chunkname;
+        JavaGen gen = new JavaGen(prototype, LuaJCLoader.getClassName(filename), filename, false);
+        LuaJCLoader.collectClasses(gen, classes);
+        this.compiled++;
+
+        if (this.cache != null && key != null) {
+            this.cache.write(key, BytecodeCache.CLASSES_EXTENSION,
+                LuaJCLoader.writeClasses(gen, classes));
+        }
+
+        return new GeneratedClassLoader(classes).loadClass(gen.classname);
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Puts the bytecode of the provided generated class
+     * and of all its inner classes into the provided
+     * map.</p>
+     */
+    private static void collectClasses(JavaGen gen, ObjectMap<String, byte[]> classes) {
+        classes.put(gen.classname, gen.bytecode);
+        if (gen.inners != null) {
+            for (JavaGen inner : gen.inners) {
+                LuaJCLoader.collectClasses(inner, classes);
+            }
+        }
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Serializes the provided classes generated from a
+     * script, main class first.</p>
+     */
+    private static byte[] writeClasses(JavaGen gen, ObjectMap<String, byte[]> classes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(CLASSES_FORMAT);
+            output.writeInt(classes.size);
+            output.writeUTF(gen.classname);
+            output.writeInt(gen.bytecode.length);
+            output.write(gen.bytecode);
+            for (ObjectMap.Entry<String, byte[]> entry : classes.entries()) {
+                if (!entry.key.equals(gen.classname)) {
+                    output.writeUTF(entry.key);
+                    output.writeInt(entry.value.length);
+                    output.write(entry.value);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // not thrown by in-memory streams
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Reads classes serialized by
+     * {@link #writeClasses(JavaGen, ObjectMap)} into the
+     * provided map, returning the name of the main
+     * class.</p>
+     */
+    private static String readClasses(byte[] data, ObjectMap<String, byte[]> classes)
+        throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (input.readInt() != CLASSES_FORMAT) {
+                throw new IOException("unknown format");
+            }
+
+            int count = input.readInt();
+            String classname = null;
+            for (int i = 0; i < count; i++) {
+                String name = input.readUTF();
+                int length = input.readInt();
+                if (length < 0) {
+                    throw new IOException("malformed entry");
+                }
+
+                byte[] bytecode = new byte[length];
+                input.readFully(bytecode);
+                classes.put(name, bytecode);
+                if (classname == null) {
+                    classname = name;
+                }
+            }
+
+            if (classname == null || input.read() != -1) {
+                throw new IOException("malformed entry");
+            }
+
+            return classname;
+        }
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns a valid Java class name for the script of
+     * the provided file name.</p>
+     */
+    private static String getClassName(String filename) {
+        String name = filename.endsWith(".lua")
+            ? filename.substring(0, filename.length() - 4) : filename;
+        StringBuilder classname = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = i == 0 ? Character.isJavaIdentifierStart(c)
+                : Character.isJavaIdentifierPart(c);
+            classname.append(valid ? c : '_');
+        }
+
+        return classname.length() == 0 ? "_" : classname.toString();
+    }
+}
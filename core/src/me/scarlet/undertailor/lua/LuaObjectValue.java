@@ -30,29 +30,168 @@
 
 package me.scarlet.undertailor.lua;
 
+import org.luaj.vm2.LuaError;
+import org.luaj.vm2.LuaString;
 import org.luaj.vm2.LuaTable;
 import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
 
 import me.scarlet.undertailor.exception.LuaScriptException;
+import me.scarlet.undertailor.util.LuaUtil;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.lang.ref.WeakReference;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.Arrays;
 
 /**
  * Generic container for Java objects to be passable as Lua
  * objects.
+ * 
+ * <p>Object values start out sharing the metatable
+ * generated for their object's class, and only receive a
+ * copy of their own once a script modifies the metatable
+ * retrieved through {@link #getOwnMetatable()}. Fields set
+ * by scripts are held by the object value itself.</p>
  *
  * @param <T> the type of the Java object to contain
  */
 public class LuaObjectValue<T> extends LuaTable {
 
-    static final Map<Object, WeakReference<LuaObjectValue<?>>> STORED;
+    static final ObjectValueCache STORED;
+
+    /**
+     * A proxy of the metatable of an object value, or of a
+     * table within it, giving the object value a copy of
+     * its own on the first write.
+     * 
+     * <p>Tables read from a proxy are proxies themselves,
+     * created once per key so that reading the same key
+     * twice returns the same proxy.</p>
+     */
+    private static class MetatableView extends LuaTable {
+
+        private LuaObjectValue<?> owner;
+        private MetatableView parent;
+        private LuaValue key; // key of the viewed table within the parent
+        private LuaValue[] childKeys;
+        private MetatableView[] children;
+        private int childCount;
+
+        MetatableView(LuaObjectValue<?> owner, MetatableView parent, LuaValue key) {
+            this.owner = owner;
+            this.parent = parent;
+            this.key = key;
+        }
+
+        @Override
+        public LuaValue rawget(LuaValue key) {
+            LuaValue value = this.target().rawget(key);
+            return this.isShared(value) ? this.getChild(key) : value;
+        }
+
+        @Override
+        public LuaValue rawget(int key) {
+            LuaValue value = this.target().rawget(key);
+            return this.isShared(value) ? this.getChild(LuaValue.valueOf(key)) : value;
+        }
+
+        @Override
+        public void rawset(LuaValue key, LuaValue value) {
+            this.owner.unshareMetatable();
+            this.target().rawset(key, value);
+        }
+
+        @Override
+        public void rawset(int key, LuaValue value) {
+            this.owner.unshareMetatable();
+            this.target().rawset(key, value);
+        }
+
+        @Override
+        public Varargs next(LuaValue key) {
+            Varargs next = this.target().next(key);
+            LuaValue value = next.arg(2);
+            if (!this.isShared(value)) {
+                return next;
+            }
+
+            return LuaValue.varargsOf(next.arg1(), this.getChild(next.arg1()));
+        }
+
+        @Override
+        public int rawlen() {
+            return this.target().rawlen();
+        }
+
+        @Override
+        public LuaValue getmetatable() {
+            return this.target().getmetatable();
+        }
+
+        @Override
+        public LuaValue setmetatable(LuaValue metatable) {
+            this.owner.unshareMetatable();
+            return this.target().setmetatable(metatable);
+        }
+
+        /**
+         * Internal method.
+         * 
+         * <p>Returns the proxy of the table held under the
+         * provided key, creating it on first use.</p>
+         */
+        private MetatableView getChild(LuaValue key) {
+            for (int i = 0; i < this.childCount; i++) {
+                if (this.childKeys[i].raweq(key)) {
+                    return this.children[i];
+                }
+            }
+
+            if (this.children == null) {
+                this.childKeys = new LuaValue[2];
+                this.children = new MetatableView[2];
+            } else if (this.childCount >= this.children.length) {
+                this.childKeys = Arrays.copyOf(this.childKeys, this.childCount * 2);
+                this.children = Arrays.copyOf(this.children, this.childCount * 2);
+            }
+
+            MetatableView child = new MetatableView(this.owner, this, key);
+            this.childKeys[this.childCount] = key;
+            this.children[this.childCount++] = child;
+            return child;
+        }
+
+        /**
+         * Internal method.
+         * 
+         * <p>Returns the table currently viewed, within the
+         * shared metatable or the copy owned by the object
+         * value.</p>
+         */
+        private LuaTable target() {
+            LuaValue table = this.parent == null ? this.owner.getmetatable()
+                : this.parent.target().rawget(this.key);
+            if (table == null || !table.istable()) {
+                throw new LuaError("attempt to use a metatable that was replaced");
+            }
+
+            return table.checktable();
+        }
+
+        /**
+         * Internal method.
+         * 
+         * <p>Returns whether or not the provided value is a
+         * table that would be modified for every object
+         * value sharing the metatable.</p>
+         */
+        private boolean isShared(LuaValue value) {
+            return this.owner.sharedMetatable && value.getClass() == LuaTable.class;
+        }
+    }
 
     static {
-        STORED = new WeakHashMap<>();
+        STORED = new ObjectValueCache();
     }
 
     /**
@@ -64,26 +203,44 @@ public class LuaObjectValue<T> extends LuaTable {
      * Otherwise, a new one is generated, registered and
      * returned.</p>
      * 
+     * <p>Objects are matched by identity; equal but separate
+     * objects each get their own object value.</p>
+     * 
      * @param object the Object for the value to hold
      * 
      * @return the LuaObjectValue holding the provided
      *         object
      */
-    @SuppressWarnings("unchecked")
     public static <T> LuaObjectValue<T> of(T object) {
         if (object == null) {
             return null;
         }
 
-        if (LuaObjectValue.STORED.containsKey(object)) {
-            if (LuaObjectValue.STORED.get(object).get() != null) {
-                return (LuaObjectValue<T>) LuaObjectValue.STORED.get(object).get();
-            }
+        return LuaObjectValue.STORED.getOrCreate(object, LuaObjectValue::new);
+    }
 
-            LuaObjectValue.STORED.remove(object);
-        }
+    /**
+     * Returns the count of {@link LuaObjectValue}s
+     * currently alive.
+     * 
+     * @return the count of live object values
+     */
+    public static int getLiveCount() {
+        return LuaObjectValue.STORED.size();
+    }
 
-        return new LuaObjectValue<>(object);
+    /**
+     * Returns the total count of {@link LuaObjectValue}s
+     * that have been garbage collected and dropped since
+     * startup.
+     * 
+     * <p>Sampling this value over time gives the rate at
+     * which object values are discarded.</p>
+     * 
+     * @return the count of purged object values
+     */
+    public static long getPurgedCount() {
+        return LuaObjectValue.STORED.getPurgedCount();
     }
 
     /**
@@ -110,12 +267,18 @@ public class LuaObjectValue<T> extends LuaTable {
 
     private String typename;
     private LuaObjectMeta meta;
+    private boolean sharedMetatable;
+    private MetatableView metatableView;
     private T ref;
 
+    private String[] functionNames;
+    private LuaString[] functionKeys;
+    private LuaValue[] functions;
+    private int functionCount;
+
     private LuaObjectValue(T object) {
         this.ref = object;
 
-        LuaObjectValue.STORED.put(object, new WeakReference<>(this));
         LuaObjectMeta meta = Lua.getMeta(object);
         if (meta != null) {
             this.meta = meta;
@@ -125,6 +288,7 @@ public class LuaObjectValue<T> extends LuaTable {
         LuaTable metatable = Lua.generateMetatable(object);
         if (metatable != null) {
             this.setmetatable(metatable);
+            this.sharedMetatable = true;
         }
     }
 
@@ -139,6 +303,25 @@ public class LuaObjectValue<T> extends LuaTable {
         return super.typename();
     }
 
+    @Override
+    public LuaValue setmetatable(LuaValue metatable) {
+        this.sharedMetatable = false;
+        return super.setmetatable(metatable);
+    }
+
+    @Override
+    public void rawset(LuaValue key, LuaValue value) {
+        super.rawset(key, value);
+        if (this.functionCount > 0 && key instanceof LuaString) {
+            for (int i = 0; i < this.functionCount; i++) {
+                if (this.functionKeys[i].raweq(key)) {
+                    this.functions[i] = null;
+                    break;
+                }
+            }
+        }
+    }
+
     // ---------------- g/s object params ----------------
 
     /**
@@ -162,6 +345,141 @@ public class LuaObjectValue<T> extends LuaTable {
         return this.meta;
     }
 
+    /**
+     * Returns the metatable of this {@link LuaObjectValue},
+     * safe to be modified without affecting other object
+     * values.
+     * 
+     * <p>If this object value still shares the metatable of
+     * its object's class, the returned table is not the
+     * metatable itself but a proxy of it: reads go to the
+     * shared metatable, and the first write to the proxy,
+     * or to a table read from it, gives this object value a
+     * copy of its own and lands in that copy. The same
+     * proxy is returned until then, after which the copy is
+     * returned instead. Proxies used as the metatable of
+     * another table should first go through
+     * {@link #toMetatable(LuaValue)}.</p>
+     * 
+     * @return the metatable of this object value, or a
+     *         proxy of it, or null if it has none
+     */
+    public LuaValue getOwnMetatable() {
+        if (!this.sharedMetatable) {
+            return this.getmetatable();
+        }
+
+        if (this.metatableView == null) {
+            this.metatableView = new MetatableView(this, null, null);
+        }
+
+        return this.metatableView;
+    }
+
+    /**
+     * Returns the table the provided value stands for as a
+     * metatable.
+     * 
+     * <p>Proxies returned by {@link #getOwnMetatable()} are
+     * replaced by the table they view, within a copy made
+     * for their object value if it still shared its
+     * metatable, so that the metatable ends up shared with
+     * that object value alone as it would in plain Lua.
+     * Other values are returned as-is.</p>
+     * 
+     * @param metatable the value to use as a metatable
+     * 
+     * @return the table to set as the metatable
+     */
+    public static LuaValue toMetatable(LuaValue metatable) {
+        if (metatable instanceof MetatableView) {
+            MetatableView view = (MetatableView) metatable;
+            view.owner.unshareMetatable();
+            return view.target();
+        }
+
+        return metatable;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Gives this object value a copy of its own of the
+     * metatable it shares, if it still shares one.</p>
+     */
+    private void unshareMetatable() {
+        if (this.sharedMetatable) {
+            this.setmetatable(LuaUtil.copyTable(this.getmetatable().checktable(), true));
+            this.metatableView = null;
+        }
+    }
+
+    /**
+     * Returns the function stored under the given key
+     * directly within this {@link LuaObjectValue}, or nil if
+     * no function is stored there.
+     * 
+     * <p>Values provided by the metatable of this object
+     * value are not considered. Resolved functions are
+     * cached per key, and dropped as soon as the key is
+     * assigned anew, so repeated calls for a key that does
+     * not change do not look into the table.</p>
+     * 
+     * @param name the key of the function
+     * 
+     * @return the function under the key, or nil
+     */
+    public LuaValue getFunction(String name) {
+        int index = -1;
+        for (int i = 0; i < this.functionCount; i++) {
+            if (this.functionNames[i].equals(name)) {
+                index = i;
+                break;
+            }
+        }
+
+        if (index < 0) {
+            index = this.addFunctionKey(name);
+        }
+
+        LuaValue function = this.functions[index];
+        if (function == null) {
+            function = this.rawget(this.functionKeys[index]);
+            if (!function.isfunction()) {
+                function = LuaValue.NIL;
+            }
+
+            this.functions[index] = function;
+        }
+
+        return function;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Registers a new key within the function cache of
+     * this object value, returning its position.</p>
+     */
+    private int addFunctionKey(String name) {
+        if (this.functionNames == null) {
+            this.functionNames = new String[4];
+            this.functionKeys = new LuaString[4];
+            this.functions = new LuaValue[4];
+        } else if (this.functionCount >= this.functionNames.length) {
+            int capacity = this.functionNames.length * 2;
+            this.functionNames = Arrays.copyOf(this.functionNames, capacity);
+            this.functionKeys = Arrays.copyOf(this.functionKeys, capacity);
+            this.functions = Arrays.copyOf(this.functions, capacity);
+        }
+
+        int index = this.functionCount++;
+        this.functionNames[index] = name;
+        this.functionKeys[index] = LuaValue.valueOf(name);
+        this.functions[index] = null;
+        return index;
+    }
+
     // ---------------- functional methods ----------------
 
     /**
@@ -0,0 +1,193 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Tellerva, Marc Lawrence
+ *
+ * Permission is hereby granted, free of charge, to any
+ * person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the
+ * Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge,
+ * publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice
+ * shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package me.scarlet.undertailor.lua;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.function.Function;
+
+/**
+ * Identity-keyed cache of the {@link LuaObjectValue}s
+ * wrapping Java objects.
+ * 
+ * <p>Objects are matched by identity rather than through
+ * {@link Object#equals(Object)}, so separate but equal
+ * objects (such as two equal vectors) never share a
+ * wrapper.</p>
+ * 
+ * <p>Wrappers are only weakly held. As a wrapper holds its
+ * object, the object itself needs no reference from the
+ * cache, and stays alive for as long as its wrapper does.
+ * Entries of collected wrappers are purged as the cache is
+ * used.</p>
+ * 
+ * <p>All operations are synchronized.</p>
+ */
+class ObjectValueCache {
+
+    /**
+     * A weakly-held wrapper, chained with the other
+     * wrappers of the same bucket.
+     */
+    private static class Entry extends WeakReference<LuaObjectValue<?>> {
+
+        final int hash;
+        Entry next;
+
+        Entry(LuaObjectValue<?> value, int hash, Entry next,
+            ReferenceQueue<LuaObjectValue<?>> queue) {
+            super(value, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    private Entry[] buckets;
+    private int size;
+    private long purged;
+    private ReferenceQueue<LuaObjectValue<?>> queue;
+
+    ObjectValueCache() {
+        this.buckets = new Entry[64];
+        this.size = 0;
+        this.purged = 0;
+        this.queue = new ReferenceQueue<>();
+    }
+
+    /**
+     * Returns the wrapper of the provided object, creating
+     * and storing one with the given factory if it has
+     * none.
+     * 
+     * @param object the object to wrap
+     * @param factory the function creating a new wrapper
+     * 
+     * @return the wrapper of the object
+     */
+    @SuppressWarnings("unchecked")
+    synchronized <T> LuaObjectValue<T> getOrCreate(T object,
+        Function<T, LuaObjectValue<T>> factory) {
+        this.purge();
+
+        int hash = System.identityHashCode(object);
+        int index = hash & (this.buckets.length - 1);
+        for (Entry entry = this.buckets[index]; entry != null; entry = entry.next) {
+            if (entry.hash == hash) {
+                LuaObjectValue<?> value = entry.get();
+                if (value != null && value.getObject() == object) {
+                    return (LuaObjectValue<T>) value;
+                }
+            }
+        }
+
+        LuaObjectValue<T> value = factory.apply(object);
+        this.buckets[index] = new Entry(value, hash, this.buckets[index], this.queue);
+        if (++this.size > this.buckets.length * 3 / 4) {
+            this.resize();
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the count of wrappers currently held.
+     * 
+     * @return the count of live wrappers
+     */
+    synchronized int size() {
+        this.purge();
+        return this.size;
+    }
+
+    /**
+     * Returns the total count of wrappers purged from the
+     * cache after being collected.
+     * 
+     * @return the count of purged wrappers
+     */
+    synchronized long getPurgedCount() {
+        this.purge();
+        return this.purged;
+    }
+
+    // ---------------- internal methods ----------------
+
+    /**
+     * Internal method.
+     * 
+     * <p>Removes the entries of collected wrappers.</p>
+     */
+    private void purge() {
+        Reference<? extends LuaObjectValue<?>> ref;
+        while ((ref = this.queue.poll()) != null) {
+            Entry removed = (Entry) ref;
+            int index = removed.hash & (this.buckets.length - 1);
+            Entry prev = null;
+            for (Entry entry = this.buckets[index]; entry != null; entry = entry.next) {
+                if (entry == removed) {
+                    if (prev == null) {
+                        this.buckets[index] = entry.next;
+                    } else {
+                        prev.next = entry.next;
+                    }
+
+                    this.size--;
+                    this.purged++;
+                    break;
+                }
+
+                prev = entry;
+            }
+        }
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Doubles the count of buckets of the cache.</p>
+     */
+    private void resize() {
+        Entry[] buckets = new Entry[this.buckets.length * 2];
+        for (Entry head : this.buckets) {
+            Entry entry = head;
+            while (entry != null) {
+                Entry next = entry.next;
+                int index = entry.hash & (buckets.length - 1);
+                entry.next = buckets[index];
+                buckets[index] = entry;
+                entry = next;
+            }
+        }
+
+        this.buckets = buckets;
+    }
+}
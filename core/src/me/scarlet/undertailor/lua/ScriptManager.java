@@ -30,10 +30,14 @@
 
 package me.scarlet.undertailor.lua;
 
+import com.badlogic.gdx.utils.ObjectMap;
 import org.luaj.vm2.Globals;
 import org.luaj.vm2.LoadState;
+import org.luaj.vm2.LuaError;
+import org.luaj.vm2.LuaFunction;
 import org.luaj.vm2.LuaTable;
 import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Prototype;
 import org.luaj.vm2.Varargs;
 import org.luaj.vm2.compiler.LuaC;
 import org.luaj.vm2.lib.Bit32Lib;
@@ -47,6 +51,7 @@ import org.luaj.vm2.lib.jse.JseOsLib;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import me.scarlet.undertailor.LaunchOptions;
 import me.scarlet.undertailor.Undertailor;
 import me.scarlet.undertailor.exception.LuaScriptException;
 import me.scarlet.undertailor.lua.lib.BaseLib;
@@ -57,32 +62,79 @@ import me.scarlet.undertailor.lua.lib.OsLib;
 import me.scarlet.undertailor.lua.lib.TextsLib;
 import me.scarlet.undertailor.util.LuaUtil;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.InputStream;
+import java.io.IOException;
+import java.nio.file.Files;
 
 /**
  * Manager class responsible for generating {@link Globals}
  * objects with their appropriate libraries to load Lua
  * scripts with.
+ * 
+ * <p>Scripts are compiled once into {@link Prototype}s,
+ * kept until their file is seen to have changed on disk.
+ * Running a script again only creates a new closure from
+ * its cached Prototype.</p>
+ * 
+ * <p>Unless disabled through {@link LaunchOptions}, compiled
+ * scripts are also kept on disk by a
+ * {@link BytecodeCache}, sparing later launches from
+ * compiling unchanged scripts. Scripts may also be run as
+ * JVM classes generated by LuaJC, through a
+ * {@link LuaJCLoader}, falling back to the interpreter for
+ * any script LuaJC cannot handle. The generated classes are
+ * kept in the bytecode cache alongside their script.</p>
  */
 public class ScriptManager {
 
     static final Logger log = LoggerFactory.getLogger(ScriptManager.class);
 
+    /**
+     * A compiled script, alongside the state of its file
+     * when it was compiled.
+     */
+    private static class CompiledScript {
+
+        Prototype prototype;
+        String bytecodeKey; // null if not in the bytecode cache
+        long lastModified;
+        long size;
+    }
+
     private Undertailor undertailor;
 
     private File scriptPath;
     private Globals globals;
+    private BytecodeCache bytecode;
+    private LuaJCLoader luajc;
+
+    private ObjectMap<String, CompiledScript> compiled; // keyed by canonical path
+    private long cacheHits;
+    private long cacheMisses;
 
     public ScriptManager(Undertailor undertailor) {
         this.scriptPath = null;
         this.undertailor = undertailor;
+        this.compiled = new ObjectMap<>();
     }
 
     public void load() {
         this.globals = this.generateGlobals();
+
+        LaunchOptions options = undertailor.getLaunchOptions();
+        if (options.bytecodeCache && options.bytecodeCacheDir != null) {
+            this.bytecode = new BytecodeCache(options.bytecodeCacheDir);
+        }
+
+        if (options.luajc) {
+            if (LuaJCLoader.isAvailable()) {
+                this.luajc = new LuaJCLoader(this.bytecode);
+            } else {
+                log.warn("LuaJC requires BCEL, which was not found; scripts will be interpreted");
+            }
+        }
     }
 
     /**
@@ -178,13 +230,163 @@ public class ScriptManager {
      *         found
      */
     public Varargs runScript(File luaFile) throws FileNotFoundException {
-        InputStream stream = new FileInputStream(luaFile);
+        return this.loadScript(luaFile).invoke();
+    }
+
+    /**
+     * Returns the Lua script file at the provided path as a
+     * function, without running it.
+     * 
+     * <p>The script is only compiled if it was not compiled
+     * before, or if its file was modified since.</p>
+     * 
+     * @param luaFile the Lua script file to load
+     * 
+     * @return the {@link LuaFunction} running the script
+     * 
+     * @throws FileNotFoundException if the file wasn't
+     *         found
+     */
+    public LuaFunction loadScript(File luaFile) throws FileNotFoundException {
         String chunkname = "@" + luaFile.getName();
-        return globals.load(stream, chunkname, "bt", this.globals).invoke();
+        CompiledScript script = this.getCompiledScript(luaFile, chunkname);
+        Prototype prototype = script.prototype;
+        if (this.luajc != null) {
+            LuaFunction function =
+                this.luajc.load(prototype, chunkname, script.bytecodeKey, this.globals);
+            if (function != null) {
+                return function;
+            }
+        }
+
+        try {
+            return globals.loader.load(prototype, chunkname, this.globals);
+        } catch (IOException e) {
+            throw new LuaError("load " + chunkname + ": " + e);
+        }
+    }
+
+    /**
+     * Drops the compiled form of the provided Lua script
+     * file, forcing it to be compiled again the next time
+     * it is run.
+     * 
+     * @param luaFile the Lua script file to drop
+     */
+    public synchronized void invalidate(File luaFile) {
+        this.compiled.remove(ScriptManager.getCacheKey(luaFile));
+    }
+
+    /**
+     * Drops the compiled form of all Lua script files.
+     */
+    public synchronized void invalidateAll() {
+        this.compiled.clear();
+    }
+
+    /**
+     * Returns the count of script loads that reused a
+     * previously compiled script.
+     * 
+     * @return the compiled script cache hit count
+     */
+    public synchronized long getCacheHits() {
+        return this.cacheHits;
+    }
+
+    /**
+     * Returns the count of script loads that had to compile
+     * their script.
+     * 
+     * @return the compiled script cache miss count
+     */
+    public synchronized long getCacheMisses() {
+        return this.cacheMisses;
+    }
+
+    /**
+     * Returns the count of scripts loaded from the on-disk
+     * bytecode cache, rather than compiled.
+     * 
+     * @return the bytecode cache hit count, or 0 if the
+     *         bytecode cache is disabled
+     */
+    public synchronized int getBytecodeHits() {
+        return this.bytecode == null ? 0 : this.bytecode.getLoadedCount();
+    }
+
+    /**
+     * Returns the count of scripts that had to be compiled
+     * and written to the on-disk bytecode cache.
+     * 
+     * @return the bytecode cache miss count, or 0 if the
+     *         bytecode cache is disabled
+     */
+    public synchronized int getBytecodeMisses() {
+        return this.bytecode == null ? 0 : this.bytecode.getCompiledCount();
     }
 
     // ---------------- internal methods ----------------
 
+    /**
+     * Internal method.
+     * 
+     * <p>Returns the key the provided script file is
+     * cached under.</p>
+     */
+    private static String getCacheKey(File luaFile) {
+        try {
+            return luaFile.getCanonicalPath();
+        } catch (IOException e) {
+            return luaFile.getAbsolutePath();
+        }
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns the compiled form of the provided script
+     * file, compiling it if it wasn't cached or has changed
+     * on disk.</p>
+     */
+    private synchronized CompiledScript getCompiledScript(File luaFile, String chunkname)
+        throws FileNotFoundException {
+        if (!luaFile.isFile()) {
+            throw new FileNotFoundException(luaFile.getAbsolutePath());
+        }
+
+        String key = ScriptManager.getCacheKey(luaFile);
+        long lastModified = luaFile.lastModified();
+        long size = luaFile.length();
+        CompiledScript script = this.compiled.get(key);
+        if (script != null && script.lastModified == lastModified && script.size == size) {
+            this.cacheHits++;
+            return script;
+        }
+
+        this.cacheMisses++;
+        script = new CompiledScript();
+        try {
+            byte[] source = Files.readAllBytes(luaFile.toPath());
+            boolean binary = source.length > 0 && source[0] == LoadState.LUA_SIGNATURE[0];
+            if (this.bytecode != null && !binary) {
+                script.bytecodeKey = this.bytecode.getKey(key, source, chunkname);
+                script.prototype =
+                    this.bytecode.load(this.globals, script.bytecodeKey, source, chunkname);
+            } else {
+                script.prototype =
+                    globals.loadPrototype(new ByteArrayInputStream(source), chunkname, "bt");
+            }
+        } catch (IOException e) {
+            throw new LuaError("load " + chunkname + ": " + e);
+        }
+
+        script.lastModified = lastModified;
+        script.size = size;
+        this.compiled.put(key, script);
+        return script;
+    }
+
     /**
      * Internal method.
      * 
@@ -231,7 +433,11 @@ public class ScriptManager {
         returned.set("collectgarbage", LuaValue.NIL);
 
         returned.set("debug", LuaValue.NIL);
-        returned.set("package", LuaValue.NIL);
+
+        // only keep the table of loaded modules
+        LuaTable packageLib = new LuaTable();
+        packageLib.set("loaded", BaseLib.getLoadedModules());
+        returned.set("package", packageLib);
 
         return returned;
     }
@@ -33,6 +33,7 @@ package me.scarlet.undertailor.lua.impl;
 import static org.luaj.vm2.LuaValue.valueOf;
 
 import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
 
 import me.scarlet.undertailor.exception.LuaScriptException;
 import me.scarlet.undertailor.gfx.text.TextStyle;
@@ -42,6 +43,7 @@ import me.scarlet.undertailor.lua.ScriptManager;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.Arrays;
 
 /**
  * Implementation of a Lua-implemented {@link TextStyle}.
@@ -49,6 +51,7 @@ import java.io.FileNotFoundException;
 public class LuaTextStyle implements LuaImplementable<TextStyle>, TextStyle {
 
     public static final String FUNC_APPLY = "apply";
+    public static final String FUNC_APPLY_BATCH = "applyBatch";
 
     private static final LuaTable DM_PROXY;
 
@@ -59,11 +62,35 @@ public class LuaTextStyle implements LuaImplementable<TextStyle>, TextStyle {
     private String styleName;
     private LuaObjectValue<TextStyle> luaObj;
 
+    // batch tables, reused between calls
+    private LuaTable batchProxy;
+    private BatchArray batchOffX, batchOffY, batchScaleX, batchScaleY, batchRotation, batchIndex;
+    private LuaTable batchCharacters;
+    private char[] batchChars;
+    private int batchCharCount;
+
     public LuaTextStyle(ScriptManager manager, File luaFile, String key)
         throws FileNotFoundException, LuaScriptException {
         this.luaObj = LuaObjectValue.of(this);
         this.luaObj.load(manager, luaFile);
         this.styleName = key;
+
+        this.batchProxy = new LuaTable();
+        this.batchOffX = new BatchArray();
+        this.batchOffY = new BatchArray();
+        this.batchScaleX = new BatchArray();
+        this.batchScaleY = new BatchArray();
+        this.batchRotation = new BatchArray();
+        this.batchIndex = new BatchArray();
+        this.batchProxy.set("offX", this.batchOffX.table);
+        this.batchProxy.set("offY", this.batchOffY.table);
+        this.batchProxy.set("scaleX", this.batchScaleX.table);
+        this.batchProxy.set("scaleY", this.batchScaleY.table);
+        this.batchProxy.set("rotation", this.batchRotation.table);
+        this.batchProxy.set("index", this.batchIndex.table);
+        this.batchCharacters = new LuaTable();
+        this.batchChars = new char[0];
+        this.batchCharCount = 0;
     }
 
     // ---------------- abstract method implementation ----------------
@@ -102,4 +129,153 @@ public class LuaTextStyle implements LuaImplementable<TextStyle>, TextStyle {
         meta.scaleX = DM_PROXY.get("scaleX").tofloat();
         meta.scaleY = DM_PROXY.get("scaleY").tofloat();
     }
+
+    @Override
+    public boolean isBatched() {
+        return this.hasFunction(FUNC_APPLY_BATCH);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>Calls the script's <code>applyBatch(meta, time,
+     * characters, textLength)</code> function once for the
+     * whole batch. The characters table holds each
+     * character of the batch as a single-character string.
+     * The meta table holds the <code>count</code> of
+     * characters and arrays named <code>offX</code>,
+     * <code>offY</code>, <code>scaleX</code>,
+     * <code>scaleY</code>, <code>rotation</code> and
+     * <code>index</code>. All arrays are indexed from 1 in
+     * the same order as the characters table.</p>
+     * 
+     * <p>The tables are reused between calls, and only the
+     * entries whose values changed since the previous call
+     * are written to.</p>
+     */
+    @Override
+    public void applyBatch(BatchMeta meta, long time, int textLength) {
+        this.checkFunction(FUNC_APPLY_BATCH);
+        this.batchOffX.resize(meta.size);
+        this.batchOffY.resize(meta.size);
+        this.batchScaleX.resize(meta.size);
+        this.batchScaleY.resize(meta.size);
+        this.batchRotation.resize(meta.size);
+        this.batchIndex.resize(meta.size);
+        for (int i = 0; i < meta.size; i++) {
+            this.batchOffX.put(i, meta.offX[i]);
+            this.batchOffY.put(i, meta.offY[i]);
+            this.batchScaleX.put(i, meta.scaleX[i]);
+            this.batchScaleY.put(i, meta.scaleY[i]);
+            this.batchRotation.put(i, meta.rotation[i]);
+            this.batchIndex.put(i, meta.indices[i]);
+        }
+
+        this.updateBatchCharacters(meta);
+        this.batchProxy.rawset("count", valueOf(meta.size));
+        this.invokeSelf(FUNC_APPLY_BATCH, this.batchProxy, valueOf(time), this.batchCharacters,
+            valueOf(textLength));
+
+        for (int i = 0; i < meta.size; i++) {
+            meta.offX[i] = this.batchOffX.get(i);
+            meta.offY[i] = this.batchOffY.get(i);
+            meta.scaleX[i] = this.batchScaleX.get(i);
+            meta.scaleY[i] = this.batchScaleY.get(i);
+            meta.rotation[i] = this.batchRotation.get(i);
+        }
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Writes the characters of the provided batch into
+     * the characters table, one entry per character,
+     * skipping the entries that did not change.</p>
+     */
+    private void updateBatchCharacters(BatchMeta meta) {
+        if (this.batchChars.length < meta.size) {
+            this.batchChars = Arrays.copyOf(this.batchChars, meta.characters.length);
+        }
+
+        for (int i = meta.size; i < this.batchCharCount; i++) {
+            this.batchCharacters.rawset(i + 1, LuaValue.NIL);
+        }
+
+        for (int i = 0; i < meta.size; i++) {
+            char character = meta.characters[i];
+            if (i >= this.batchCharCount || this.batchChars[i] != character) {
+                this.batchChars[i] = character;
+                this.batchCharacters.rawset(i + 1, valueOf(String.valueOf(character)));
+            }
+        }
+
+        this.batchCharCount = meta.size;
+    }
+
+    // ---------------- batch array ----------------
+
+    /**
+     * Lua array of numbers handed to a batched style,
+     * remembering the value held by each of its entries so
+     * unchanged entries are not boxed and written again on
+     * the next batch.
+     */
+    private static class BatchArray {
+
+        final LuaTable table;
+        private double[] values;
+        private int size;
+
+        BatchArray() {
+            this.table = new LuaTable();
+            this.values = new double[0];
+            this.size = 0;
+        }
+
+        /**
+         * Resizes this array to the given count of entries,
+         * clearing the entries past its new end.
+         */
+        void resize(int size) {
+            if (this.values.length < size) {
+                int capacity = Math.max(size, this.values.length * 2);
+                int length = this.values.length;
+                this.values = Arrays.copyOf(this.values, capacity);
+                Arrays.fill(this.values, length, capacity, Double.NaN);
+            }
+
+            for (int i = size; i < this.size; i++) {
+                this.table.rawset(i + 1, LuaValue.NIL);
+                this.values[i] = Double.NaN;
+            }
+
+            this.size = size;
+        }
+
+        /**
+         * Sets the entry at the given 0-based position,
+         * unless it already holds the value.
+         */
+        void put(int index, double value) {
+            if (this.values[index] != value) {
+                this.values[index] = value;
+                this.table.rawset(index + 1, valueOf(value));
+            }
+        }
+
+        /**
+         * Returns the entry at the given 0-based position,
+         * as left by the script.
+         */
+        float get(int index) {
+            LuaValue value = this.table.rawget(index + 1);
+            if (value.type() == LuaValue.TNUMBER) {
+                this.values[index] = value.todouble();
+            } else {
+                this.values[index] = Double.NaN;
+            }
+
+            return value.tofloat();
+        }
+    }
 }
@@ -32,8 +32,10 @@ package me.scarlet.undertailor.lua.lib;
 
 import static me.scarlet.undertailor.util.LuaUtil.asFunction;
 
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ObjectMap;
 import org.luaj.vm2.LuaError;
+import org.luaj.vm2.LuaTable;
 import org.luaj.vm2.LuaValue;
 import org.luaj.vm2.Varargs;
 import org.slf4j.Logger;
@@ -47,6 +49,7 @@ import me.scarlet.undertailor.lua.ScriptManager;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 
 /**
  * Replaces core functions to either function correctly with
@@ -56,10 +59,15 @@ public class BaseLib extends LuaLibrary {
 
     static Logger log = LoggerFactory.getLogger(BaseLib.class);
     private static String scriptPath;
-    private static final ObjectMap<String, Varargs> LOADED;
+    private static String scriptRoot; // canonical script path
+    private static final LuaTable LOADED; // module name -> module, as in package.loaded
+    private static final Array<String> LOADING; // modules currently being required
+    private static final ObjectMap<String, Long> LOAD_TIMES;
 
     static {
-        LOADED = new ObjectMap<>();
+        LOADED = new LuaTable();
+        LOADING = new Array<>(true, 8);
+        LOAD_TIMES = new ObjectMap<>();
     }
 
     /**
@@ -75,6 +83,63 @@ public class BaseLib extends LuaLibrary {
      */
     public static void setScriptPath(String scriptPath) {
         BaseLib.scriptPath = scriptPath;
+        try {
+            BaseLib.scriptRoot = new File(scriptPath).getCanonicalPath() + File.separator;
+        } catch (IOException e) {
+            BaseLib.scriptRoot = new File(scriptPath).getAbsolutePath() + File.separator;
+        }
+    }
+
+    /**
+     * Returns the table holding the modules loaded through
+     * require, keyed by their path relative to the script
+     * path.
+     * 
+     * <p>The table is exposed to Lua as
+     * <code>package.loaded</code>. Clearing an entry of the
+     * table causes the next require of its module to run
+     * the module again.</p>
+     * 
+     * @return the table of loaded modules
+     */
+    public static LuaTable getLoadedModules() {
+        return LOADED;
+    }
+
+    /**
+     * Returns the time taken by each module loaded through
+     * require to run, in nanoseconds.
+     * 
+     * <p>The time of a module includes the time taken by
+     * the modules it requires itself.</p>
+     * 
+     * @return the load times of loaded modules, keyed by
+     *         module name
+     */
+    public static ObjectMap<String, Long> getLoadTimes() {
+        return LOAD_TIMES;
+    }
+
+    /**
+     * Internal method.
+     * 
+     * <p>Returns the name the module at the provided file is
+     * loaded under. Different paths leading to the same
+     * file always resolve to the same name.</p>
+     */
+    private static String getModuleName(File file) {
+        String path;
+        try {
+            path = file.getCanonicalPath();
+        } catch (IOException e) {
+            path = file.getAbsolutePath();
+        }
+
+        if (scriptRoot != null && path.startsWith(scriptRoot)) {
+            path = path.substring(scriptRoot.length());
+        }
+
+        return path.replace(File.separatorChar, '/');
     }
 
     public BaseLib(ScriptManager manager) {
@@ -94,23 +159,48 @@ public class BaseLib extends LuaLibrary {
             return LuaValue.NIL;
         }));
 
-        // require(path) -- Loads a file, executes and returns its result.
-        //               -- If already done before, returns the old result.
+        // require(path) -- Loads a file, executes and returns its first result.
+        //               -- If already done before, returns the old result
+        //               -- held by package.loaded.
         this.set("require", asFunction(vargs -> {
             String path = vargs.checkjstring(1);
             File file = new File(scriptPath, path);
 
-            String abs = file.getAbsolutePath();
-            if (LOADED.containsKey(abs)) {
-                return LOADED.get(abs);
+            String name = getModuleName(file);
+            LuaValue loaded = LOADED.rawget(name);
+            if (loaded.toboolean()) {
+                return loaded;
+            }
+
+            if (LOADING.contains(name, false)) {
+                StringBuilder chain = new StringBuilder();
+                for (int i = LOADING.indexOf(name, false); i < LOADING.size; i++) {
+                    chain.append(LOADING.get(i)).append(" -> ");
+                }
+
+                throw new LuaError("circular require of module " + name + " (" + chain + name + ")");
             }
 
+            LOADING.add(name);
+            long start = System.nanoTime();
             try {
                 Varargs loadedLib = manager.runScript(file);
-                LOADED.put(path, loadedLib);
-                return loadedLib;
-            } catch (FileNotFoundException wontHappen) {
+                long time = System.nanoTime() - start;
+                LOAD_TIMES.put(name, time);
+                log.debug("module " + name + " loaded in " + (time / 1000000F) + "ms");
+
+                // keep whatever the module put into package.loaded if it returned nothing
+                if (!loadedLib.arg1().isnil()) {
+                    LOADED.rawset(name, loadedLib.arg1());
+                } else if (LOADED.rawget(name).isnil()) {
+                    LOADED.rawset(name, TRUE);
+                }
+
+                return LOADED.rawget(name);
+            } catch (FileNotFoundException e) {
                 throw new LuaError("module " + path + " not found");
+            } finally {
+                LOADING.removeValue(name, false);
             }
         }));
 
@@ -146,5 +236,34 @@ public class BaseLib extends LuaLibrary {
 
             return valueOf(false);
         }));
+
+        // getmetatable(obj) -- Returns the metatable of the object.
+        //                   -- Object values get their own copy of their
+        //                   -- shared metatable once it is modified.
+        this.set("getmetatable", asFunction(vargs -> {
+            LuaValue obj = vargs.checkvalue(1);
+            LuaValue metatable = obj instanceof LuaObjectValue
+                ? ((LuaObjectValue<?>) obj).getOwnMetatable() : obj.getmetatable();
+            if (metatable == null) {
+                return NIL;
+            }
+
+            return metatable.rawget(METATABLE).optvalue(metatable);
+        }));
+
+        // setmetatable(table, metatable) -- Sets the metatable of the table.
+        //                                -- Object value metatables are set as
+        //                                -- the table they proxy, not the proxy.
+        this.set("setmetatable", asFunction(vargs -> {
+            LuaTable table = vargs.checktable(1);
+            LuaValue metatable = vargs.arg(2);
+            LuaValue current = table.getmetatable();
+            if (current != null && !current.rawget(METATABLE).isnil()) {
+                throw new LuaError("cannot change a protected metatable");
+            }
+
+            return table.setmetatable(
+                metatable.isnil() ? null : LuaObjectValue.toMetatable(metatable.checktable()));
+        }));
     }
 }
@@ -35,9 +35,12 @@ import static me.scarlet.undertailor.util.LuaUtil.asFunction;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
+import org.luaj.vm2.LuaTable;
 
 import me.scarlet.undertailor.Undertailor;
 import me.scarlet.undertailor.gfx.MultiRenderer;
+import me.scarlet.undertailor.gfx.RenderStats;
+import me.scarlet.undertailor.gfx.RenderStats.Stat;
 import me.scarlet.undertailor.gfx.Transform;
 import me.scarlet.undertailor.gfx.spritesheet.SpriteSheet;
 import me.scarlet.undertailor.gfx.spritesheet.SpriteSheetManager;
@@ -80,6 +83,25 @@ public class GraphicsLib extends LuaLibrary {
             return orNil(Transform.DUMMY);
         }));
 
+        // graphics.getStats([percentile])
+        set("getStats", asFunction(vargs -> {
+            RenderStats stats = renderer.getStats();
+            LuaTable table = new LuaTable();
+            if (vargs.isnil(1)) {
+                for (Stat stat : Stat.values()) {
+                    table.set(stat.getName(), stats.get(stat));
+                }
+            } else {
+                float percentile = vargs.checknumber(1).tofloat();
+                for (Stat stat : Stat.values()) {
+                    table.set(stat.getName(), stats.getPercentile(stat, percentile));
+                }
+            }
+
+            table.set("frames", stats.getRecordedFrames());
+            return table;
+        }));
+
         // ---------------- renderer functions ----------------
 
         // graphics.getClearColor()
@@ -94,6 +116,28 @@ public class GraphicsLib extends LuaLibrary {
             return NIL;
         }));
 
+        // graphics.isSpritePrimitives()
+        set("isSpritePrimitives", asFunction(vargs -> {
+            return valueOf(renderer.isSpritePrimitives());
+        }));
+
+        // graphics.setSpritePrimitives(flag)
+        set("setSpritePrimitives", asFunction(vargs -> {
+            renderer.setSpritePrimitives(vargs.checkboolean(1));
+            return NIL;
+        }));
+
+        // graphics.getDeferredSubLayer()
+        set("getDeferredSubLayer", asFunction(vargs -> {
+            return valueOf(renderer.getDeferredSubLayer());
+        }));
+
+        // graphics.setDeferredSubLayer([subLayer])
+        set("setDeferredSubLayer", asFunction(vargs -> {
+            renderer.setDeferredSubLayer(vargs.optint(1, -1));
+            return NIL;
+        }));
+
         // ---------------- draw color functions ----------------
 
         // graphics.getSpriteColor()
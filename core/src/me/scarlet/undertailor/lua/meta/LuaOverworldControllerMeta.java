@@ -116,6 +116,17 @@ public class LuaOverworldControllerMeta implements LuaObjectMeta {
             return NIL;
         }));
 
+        // overworld:isDeferredRendering()
+        set("isDeferredRendering", asFunction(vargs -> {
+            return valueOf(obj(vargs).isDeferredRendering());
+        }));
+
+        // overworld:setDeferredRendering(deferred)
+        set("setDeferredRendering", asFunction(vargs -> {
+            obj(vargs).setDeferredRendering(vargs.checkboolean(2));
+            return NIL;
+        }));
+
         // overworld:setEntryTransition(task)
         set("setEntryTransition", asFunction(vargs -> {
             Task task = vargs.isnil(2) ? null : Task.asLuaTask(vargs.arg(2));
@@ -99,6 +99,11 @@ public class LuaTextMeta implements LuaObjectMeta {
             return varargsOf(valueOf(space.getA()), valueOf(space.getB()));
         }));
 
+        // text:getMeshMemory()
+        set("getMeshMemory", asFunction(vargs -> {
+            return valueOf(obj(vargs).getMeshMemory());
+        }));
+
         // ---------------- g/s text parameters ----------------
 
         // text:getStringBounds()
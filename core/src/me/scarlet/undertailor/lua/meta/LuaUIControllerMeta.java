@@ -64,6 +64,17 @@ public class LuaUIControllerMeta implements LuaObjectMeta {
     public LuaUIControllerMeta() {
         this.metatable = new LuaTable();
 
+        // controller:isDeferredRendering()
+        set("isDeferredRendering", asFunction(vargs -> {
+            return valueOf(obj(vargs).isDeferredRendering());
+        }));
+
+        // controller:setDeferredRendering(deferred)
+        set("setDeferredRendering", asFunction(vargs -> {
+            obj(vargs).setDeferredRendering(vargs.checkboolean(2));
+            return NIL;
+        }));
+
         // controller:getUIObject(id)
         set("getUIObject", asFunction(vargs -> {
             return orNil(obj(vargs).getUIObject(vargs.checklong(2)));
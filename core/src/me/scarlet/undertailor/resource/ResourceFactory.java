@@ -67,7 +67,7 @@ public abstract class ResourceFactory<V extends Disposable, T extends Resource<V
 
             if(this.cancelGen || this.getResourceReference() == null) {
                 this.cancelGen = false;
-                if(disposable != null) {
+                if(disposable != null && !this.isDisposableShared(disposable)) {
                     disposable.dispose();
                 }
             } else {
@@ -175,6 +175,24 @@ public abstract class ResourceFactory<V extends Disposable, T extends Resource<V
         return false;
     }
 
+    /**
+     * Queries whether or not the provided
+     * {@link Disposable} is shared with objects outside of
+     * this {@link ResourceFactory}.
+     * 
+     * <p>Shared Disposables are not disposed alongside the
+     * Resource using them; the factory simply lets go of
+     * them.</p>
+     * 
+     * @param disposable the Disposable to check
+     * 
+     * @return if the Disposable is not owned by this
+     *         ResourceFactory
+     */
+    protected boolean isDisposableShared(V disposable) {
+        return false;
+    }
+
     /**
      * Called right before the underlying {@link Resource}
      * and {@link Disposable} are dispoed through calling
@@ -273,6 +291,10 @@ public abstract class ResourceFactory<V extends Disposable, T extends Resource<V
             this.cancelGen = true;
         }
 
+        if (this.disposable != null && this.isDisposableShared(this.disposable)) {
+            this.disposable = null;
+        }
+
         if (this.disposable != null) {
             if (this.disposeOnGameThread()) {
                 Disposable copy = this.disposable;
@@ -142,7 +142,8 @@ public class ResourceHandler {
                                         .getOwningFactory().disposable == reference.disposable) {
                                         this.disposeFactoryResource(reference.getOwningFactory());
                                     } else {
-                                        this.disposeLooseResource(reference.disposable);
+                                        this.disposeLooseResource(reference.getOwningFactory(),
+                                            reference.disposable);
                                     }
 
                                     iterator.remove();
@@ -170,7 +171,10 @@ public class ResourceHandler {
         factory.dispose();
     }
 
-    private void disposeLooseResource(Disposable disposable) {
-        disposable.dispose();
+    private <D extends Disposable> void disposeLooseResource(ResourceFactory<D, ?> factory,
+        D disposable) {
+        if (!factory.isDisposableShared(disposable)) {
+            disposable.dispose();
+        }
     }
 }
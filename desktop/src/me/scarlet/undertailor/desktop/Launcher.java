@@ -93,7 +93,7 @@ public class Launcher extends Scene {
 
         this.options = options;
         stage.setWidth(512);
-        stage.setHeight(320);
+        stage.setHeight(346);
         stage.setResizable(false);
         stage.setTitle("Undertailor Launcher v" + Undertailor.version);
         JFXUtil.loadIcon(stage, "defaultIcon.png");
@@ -483,11 +483,23 @@ public class Launcher extends Scene {
 
         CheckBox showDebug = new CheckBox("Debug mode");
         CheckBox skipLauncher = new CheckBox("Skip launcher");
+        CheckBox packTextures = new CheckBox("Pack textures");
+        CheckBox bytecodeCache = new CheckBox("Cache scripts");
+        CheckBox luajc = new CheckBox("Use LuaJC");
 
         showDebug.setTooltip(new Tooltip("Debug mode!"));
         skipLauncher
             .setTooltip(new Tooltip("Whether or not to skip the launcher when opening the game.\n"
                 + "You can cancel this feature by pressing F12 in-game."));
+        packTextures.setTooltip(
+            new Tooltip("Whether or not to pack spritesheet, tileset and font images into\n"
+                + "shared textures. Draws faster, but takes longer to load."));
+        bytecodeCache.setTooltip(
+            new Tooltip("Whether or not to keep compiled Lua scripts on disk, so unchanged\n"
+                + "scripts are not compiled again on the next launch."));
+        luajc.setTooltip(
+            new Tooltip("Whether or not to run Lua scripts as generated Java classes, rather\n"
+                + "than interpreting them. Runs faster, but takes longer to load."));
 
         showDebug.setSelected(this.options.debug);
         showDebug.selectedProperty().addListener((value, old, neww) -> {
@@ -499,15 +511,38 @@ public class Launcher extends Scene {
             this.options.skipLauncher = neww;
         });
 
-        GridPane.setRowIndex(showDebug, 3);
-        GridPane.setRowIndex(skipLauncher, 4);
-        GridPane.setColumnSpan(showDebug, GridPane.REMAINING);
-        GridPane.setColumnSpan(skipLauncher, GridPane.REMAINING);
-        systemOptionsContent.getChildren().addAll(showDebug, skipLauncher);
+        packTextures.setSelected(this.options.packTextures);
+        packTextures.selectedProperty().addListener((value, old, neww) -> {
+            this.options.packTextures = neww;
+        });
+
+        bytecodeCache.setSelected(this.options.bytecodeCache);
+        bytecodeCache.selectedProperty().addListener((value, old, neww) -> {
+            this.options.bytecodeCache = neww;
+        });
+
+        luajc.setSelected(this.options.luajc);
+        luajc.selectedProperty().addListener((value, old, neww) -> {
+            this.options.luajc = neww;
+        });
+
+        // pairs of checkboxes share a row, lined up in two columns
+        showDebug.setMinWidth(120D);
+        skipLauncher.setMinWidth(120D);
+        HBox debugRow = new HBox(4, showDebug, packTextures);
+        HBox launcherRow = new HBox(4, skipLauncher, bytecodeCache);
+
+        GridPane.setRowIndex(debugRow, 3);
+        GridPane.setRowIndex(launcherRow, 4);
+        GridPane.setRowIndex(luajc, 5);
+        GridPane.setColumnSpan(debugRow, GridPane.REMAINING);
+        GridPane.setColumnSpan(launcherRow, GridPane.REMAINING);
+        GridPane.setColumnSpan(luajc, GridPane.REMAINING);
+        systemOptionsContent.getChildren().addAll(debugRow, launcherRow, luajc);
 
         systemOptionsContent.getRowConstraints().addAll(new RowConstraints(20D),
             new RowConstraints(20D), new RowConstraints(20D), new RowConstraints(20D),
-            new RowConstraints(20D));
+            new RowConstraints(20D), new RowConstraints(20D));
         systemOptionsContent.setVgap(6);
         systemOptionsContent.setPadding(new Insets(8));
         systemOptionsContainer.getContentProperty().set(systemOptionsContent);